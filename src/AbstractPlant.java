@@ -0,0 +1,118 @@
+/**
+ * Description: The {@code AbstractPlant} class holds the lifecycle shared by every plant engine:
+ * the plant's own thread, starting and stopping it, and running its stages for a fixed time
+ * while checking regularly whether the plant was stopped early.
+ * <p>
+ * Subclasses only say how their stages are started and stopped; {@code Plant} chains its own
+ * stage threads through mailboxes, {@code RingPlant} through a ring, and {@code RecipePlant}
+ * feeds stations it shares with other plants.
+ * </p>
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public abstract class AbstractPlant implements Runnable {
+
+    /**
+     * Longest time in milliseconds a running plant goes without checking whether it was stopped.
+     */
+    private static final long STOP_CHECK_INTERVAL = 100;
+
+    /**
+     * Processing thread for the plant.
+     */
+    final Thread thread;
+    /**
+     * Duration in milliseconds this plant runs for unless it is stopped earlier.
+     */
+    private final long processingTime;
+    private volatile boolean timeToWork;
+
+    /**
+     * Constructs the lifecycle of a plant.
+     *
+     * @param name           Name of the plant thread.
+     * @param processingTime Duration in milliseconds, {@code Long.MAX_VALUE} to run until stopped.
+     */
+    AbstractPlant(String name, long processingTime) {
+        this.processingTime = processingTime;
+        thread = new Thread(this, name);
+    }
+
+    /**
+     * Delays execution for a specified time.
+     *
+     * @param time   Duration in milliseconds.
+     * @param errMsg Error message in case of interruption.
+     */
+    static void delay(long time, String errMsg) {
+        long sleepTime = Math.max(1, time);
+        try {
+            Thread.sleep(sleepTime);
+        } catch (InterruptedException e) {
+            System.err.println(errMsg);
+        }
+    }
+
+    /**
+     * Starts the plant's processing.
+     */
+    public void startPlant() {
+        timeToWork = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the plant's processing.
+     */
+    public void stopPlant() {
+        timeToWork = false;
+    }
+
+    /**
+     * Waits for the plant's thread to stop execution.
+     */
+    public void waitToStop() {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            System.err.println(thread.getName() + " stop malfunction");
+        }
+    }
+
+    /**
+     * Executes the plant's processing cycle: starts the stages, lets them work until the
+     * processing time is over or the plant is stopped, then stops them.
+     */
+    @Override
+    public void run() {
+        System.out.println(Thread.currentThread().getName() + " Processing " + getProduct());
+        startStages();
+
+        long start = System.currentTimeMillis();
+        long elapsed;
+        while (timeToWork && (elapsed = System.currentTimeMillis() - start) < processingTime) {
+            delay(Math.min(STOP_CHECK_INTERVAL, processingTime - elapsed), "Plant malfunction");
+        }
+
+        stopStages();
+        System.out.println(Thread.currentThread().getName() + " Done");
+    }
+
+    /**
+     * Names what the plant produces, for its progress messages.
+     *
+     * @return The product's name.
+     */
+    protected abstract String getProduct();
+
+    /**
+     * Starts the plant's stages; called on the plant's thread.
+     */
+    protected abstract void startStages();
+
+    /**
+     * Stops the plant's stages and waits for them to finish; called on the plant's thread.
+     */
+    protected abstract void stopStages();
+}
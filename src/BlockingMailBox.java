@@ -3,6 +3,8 @@
  * between different processing stages in a thread-safe manner.
  * It ensures that only one orange is held at a time and uses wait-notify
  * for synchronization between producer and consumer threads.
+ * Trace events are timed inside the monitor but written after leaving it, so a trace
+ * flush never holds up the stages on either side of the mailbox.
  *
  * @author nwilliams
  * Date: 02/21/2025
@@ -13,6 +15,10 @@ public class BlockingMailBox {
      * The orange stored in the mailbox.
      */
     private Orange orange;
+    /**
+     * Set once no more oranges will be put into the mailbox.
+     */
+    private boolean closed;
 
     /**
      * Constructs an empty BlockingMailBox.
@@ -27,38 +33,65 @@ public class BlockingMailBox {
      *
      * @param o The orange to be placed into the mailbox.
      */
-    public synchronized void put(Orange o) {
-        while (!isEmpty()) {
-            try {
-                wait();
-            } catch (InterruptedException ignored) {
-                // Thread interrupted, safely exit.
+    public void put(Orange o) {
+        long time;
+        int step;
+        synchronized (this) {
+            while (!isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException ignored) {
+                    // Thread interrupted, safely exit.
+                }
             }
+            orange = o;
+            // Captured here, recorded below: the consumer may move the orange on as soon as we leave.
+            time = OrangeTracer.isEnabled() ? System.nanoTime() : 0;
+            step = o != null ? o.getStep() : 0;
+            notifyAll(); // Notify waiting threads that an orange is available.
+        }
+        if (o != null) {
+            OrangeTracer.record(o, step, OrangeTracer.ENQUEUE, time);
         }
-        orange = o;
-        notifyAll(); // Notify waiting threads that an orange is available.
     }
 
     /**
      * Retrieves an orange from the mailbox. If the mailbox is empty,
      * the calling thread waits until an orange is available.
      *
-     * @return The orange retrieved from the mailbox.
+     * @return The orange retrieved from the mailbox, or {@code null} if it is closed and empty.
      */
-    public synchronized Orange get() {
-        while (isEmpty()) {
-            try {
-                wait();
-            } catch (InterruptedException ignored) {
-                // Thread interrupted, safely exit.
+    public Orange get() {
+        Orange ret;
+        long time;
+        synchronized (this) {
+            while (isEmpty() && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException ignored) {
+                    // Thread interrupted, safely exit.
+                }
             }
+            ret = orange;
+            orange = null;
+            time = OrangeTracer.isEnabled() ? System.nanoTime() : 0;
+            notifyAll(); // Notify waiting threads that the mailbox is empty.
+        }
+        if (ret != null) {
+            OrangeTracer.record(ret, OrangeTracer.DEQUEUE, time);
         }
-        Orange ret = orange;
-        orange = null;
-        notifyAll(); // Notify waiting threads that the mailbox is empty.
         return ret;
     }
 
+    /**
+     * Closes the mailbox. Once the orange still in it has been retrieved, waiting and
+     * later calls to {@link #get()} return {@code null} instead of waiting.
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll(); // Release threads waiting for an orange that will never come.
+    }
+
     /**
      * Checks whether the mailbox is empty.
      *
@@ -17,9 +17,9 @@ public class Bottler implements Runnable {
      */
     private final BlockingMailBox squeezedMailBox;
     /**
-     * Counter to track the number of oranges bottled.
+     * Sequence number of the last orange bottled, readable by any thread while the bottler runs.
      */
-    private int orangesBottled;
+    private final Sequence orangesBottled = new Sequence();
     /**
      * Flag to control whether the thread should continue working.
      */
@@ -27,13 +27,12 @@ public class Bottler implements Runnable {
 
     /**
      * Constructs a new Bottler with a specified squeezed mailbox.
-     * Initializes the thread and sets the initial count of bottled oranges to zero.
+     * Initializes the thread; the count of bottled oranges starts at zero.
      *
      * @param squeezedMailBox The mailbox containing squeezed oranges.
      */
     Bottler(BlockingMailBox squeezedMailBox) {
         this.squeezedMailBox = squeezedMailBox;
-        orangesBottled = 0;
         thread = new Thread(this, "Bottler");
     }
 
@@ -84,8 +83,8 @@ public class Bottler implements Runnable {
     public void bottleOrange(Orange o) {
         while (o.getState() == Orange.State.Bottled) {
             o.runProcess();
+            orangesBottled.increment();
         }
-        orangesBottled++; // Increment the counter after processing the orange
     }
 
     /**
@@ -93,7 +92,7 @@ public class Bottler implements Runnable {
      *
      * @return The count of bottled oranges.
      */
-    public int getOrangesBottled() {
-        return orangesBottled;
+    public long getOrangesBottled() {
+        return orangesBottled.get() + 1;
     }
 }
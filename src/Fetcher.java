@@ -17,9 +17,13 @@ public class Fetcher implements Runnable {
      */
     private final BlockingMailBox fetchedMailBox;
     /**
-     * Counter to track the number of oranges fetched.
+     * Sequence number of the last orange fetched, readable by any thread while the fetcher runs.
      */
-    private int orangesFetched;
+    private final Sequence orangesFetched = new Sequence();
+    /**
+     * Identifier of the plant the fetched oranges belong to.
+     */
+    private final int plant;
     /**
      * Flag to control whether the thread should continue working.
      */
@@ -27,13 +31,14 @@ public class Fetcher implements Runnable {
 
     /**
      * Constructs a new Fetcher with a specified mailbox.
-     * Initializes the thread and sets the initial count of fetched oranges to zero.
+     * Initializes the thread; the count of fetched oranges starts at zero.
      *
      * @param mailBox The shared mailbox where fetched oranges will be stored.
+     * @param plant   Identifier of the plant the fetched oranges belong to.
      */
-    Fetcher(BlockingMailBox mailBox) {
+    Fetcher(BlockingMailBox mailBox, int plant) {
         this.fetchedMailBox = mailBox;
-        orangesFetched = 0;
+        this.plant = plant;
         thread = new Thread(this, "Fetcher");
     }
 
@@ -76,10 +81,10 @@ public class Fetcher implements Runnable {
     @Override
     public void run() {
         while (timeToWork) {
-            Orange orange = new Orange();
+            Orange orange = new Orange(plant);
             orange.runProcess();
+            orangesFetched.increment(); // Counted before the hand-off, see Plant.snapshot()
             fetchedMailBox.put(orange);
-            orangesFetched++;
         }
     }
 
@@ -88,8 +93,8 @@ public class Fetcher implements Runnable {
      *
      * @return The count of fetched oranges.
      */
-    public int getOrangesFetched() {
-        return orangesFetched;
+    public long getOrangesFetched() {
+        return orangesFetched.get() + 1;
     }
 
     /**
@@ -1,7 +1,13 @@
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Description: The {@code Orange} class represents an orange that undergoes multiple processing stages.
  * The processing includes fetching, peeling, squeezing, bottling, and final processing.
  * Each stage has a predefined time required to complete before moving to the next stage.
+ * <p>
+ * The stages and their times come from the orange's {@code Recipe}; oranges made without one follow
+ * {@code Recipe.ORANGE_JUICE}, whose steps are the {@code State} values.
+ * </p>
  *
  * @author nwilliams
  * Date: 02/21/2025
@@ -9,39 +15,197 @@
 public class Orange {
 
     /**
-     * Current state of the orange in the processing cycle.
+     * Source of unique orange identifiers.
+     */
+    private static final AtomicLong nextId = new AtomicLong();
+    /**
+     * States of the juice recipe, indexed by step.
      */
-    private State state;
+    private static final State[] STATES = State.values();
 
     /**
-     * Constructs a new {@code Orange} and initializes it in the fetched state.
+     * Unique identifier of the orange, used to follow it in lifecycle traces.
+     */
+    private final long id;
+    /**
+     * Identifier of the plant the orange was fetched by.
+     */
+    private final int plant;
+    /**
+     * Recipe the orange is processed by.
+     */
+    private final Recipe recipe;
+    /**
+     * Time the orange was created, from {@code System.nanoTime()}.
+     */
+    private final long created;
+    /**
+     * Current step of the orange in its recipe.
+     */
+    private int step;
+
+    /**
+     * Constructs a new {@code Orange} for plant 0 and initializes it in the fetched state.
      * The initial processing work is performed immediately.
      */
     public Orange() {
-        state = State.Fetched;
+        this(0);
+    }
+
+    /**
+     * Constructs a new juice {@code Orange} and initializes it in the fetched state.
+     * The initial processing work is performed immediately.
+     *
+     * @param plant Identifier of the plant fetching the orange.
+     */
+    public Orange(int plant) {
+        this(plant, Recipe.ORANGE_JUICE);
+    }
+
+    /**
+     * Constructs a new {@code Orange} and initializes it in the first step of its recipe.
+     * The initial processing work is performed immediately.
+     *
+     * @param plant  Identifier of the plant fetching the orange.
+     * @param recipe Recipe the orange is processed by.
+     */
+    public Orange(int plant, Recipe recipe) {
+        id = nextId.getAndIncrement();
+        created = System.nanoTime();
+        this.plant = plant;
+        this.recipe = recipe;
+        step = 0;
+        OrangeTracer.record(this, OrangeTracer.STAGE_START);
         doWork();
+        OrangeTracer.record(this, OrangeTracer.STAGE_END);
+    }
+
+    /**
+     * Retrieves the unique identifier of the orange.
+     *
+     * @return The orange's identifier.
+     */
+    public long getId() {
+        return id;
     }
 
     /**
-     * Retrieves the current state of the orange.
+     * Spreads an orange identifier over all 64 bits, salted so that decisions taken with different
+     * salts, such as picking a branch and sampling a trace, are independent of each other and of
+     * how the plants happened to interleave when the identifiers were handed out.
+     *
+     * @param id   Orange identifier.
+     * @param salt Constant that is different for every kind of decision.
+     * @return A well-mixed hash of the identifier.
+     */
+    static long hash(long id, long salt) {
+        long h = id ^ salt;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Retrieves the identifier of the plant that fetched the orange.
+     *
+     * @return The plant's identifier.
+     */
+    public int getPlant() {
+        return plant;
+    }
+
+    /**
+     * Retrieves the time the orange was created.
+     *
+     * @return The creation time, comparable only with other {@code System.nanoTime()} values.
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Retrieves the recipe the orange is processed by.
+     *
+     * @return The orange's recipe.
+     */
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    /**
+     * Retrieves the current step of the orange in its recipe.
+     *
+     * @return The index of the current step.
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Retrieves the current state of a juice orange.
      *
      * @return The current processing state of the orange.
+     * @throws IllegalStateException If the orange is not made with {@code Recipe.ORANGE_JUICE}.
      */
     public State getState() {
-        return state;
+        if (recipe != Recipe.ORANGE_JUICE) {
+            throw new IllegalStateException("This orange is made with " + recipe + ", not juice");
+        }
+        return STATES[step];
     }
 
     /**
-     * Processes the orange to move it to the next state.
+     * Processes the orange to move it to the next step of its recipe.
      *
      * @throws IllegalStateException If the orange has already been completely processed.
      */
     public void runProcess() {
-        if (state == State.Processed) {
+        if (recipe.isFinal(step)) {
             throw new IllegalStateException("This orange has already been processed");
         }
+        OrangeTracer.record(this, OrangeTracer.STAGE_START);
         doWork();
-        state = state.getNext();
+        OrangeTracer.record(this, OrangeTracer.STAGE_END);
+        step = recipe.next(step, id);
+        if (recipe.isFinal(step)) {
+            OrangeTracer.record(this, OrangeTracer.DONE);
+        }
+    }
+
+    /**
+     * Performs the work of a step without moving the orange on, so that more than one worker
+     * can attempt the same step and the first to finish can call {@link #advance(int, long)}.
+     *
+     * @param step The step being worked on.
+     * @param pace Factor applied to the step's processing time; above 1 for a slow worker.
+     * @return {@code true} if the work was completed, {@code false} if the thread was interrupted.
+     */
+    public boolean work(int step, double pace) {
+        try {
+            Thread.sleep((long) (recipe.cost(step) * pace));
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the orange on from a step whose work was completed with {@link #work(int, double)}.
+     *
+     * @param step  The step that was completed.
+     * @param start Time the winning attempt started, from {@code System.nanoTime()}.
+     * @throws IllegalStateException If the orange is no longer at that step.
+     */
+    public void advance(int step, long start) {
+        if (this.step != step || recipe.isFinal(step)) {
+            throw new IllegalStateException("This orange is not at step " + recipe.stepName(step));
+        }
+        OrangeTracer.record(this, OrangeTracer.STAGE_START, start);
+        OrangeTracer.record(this, OrangeTracer.STAGE_END);
+        this.step = recipe.next(step, id);
+        if (recipe.isFinal(this.step)) {
+            OrangeTracer.record(this, OrangeTracer.DONE);
+        }
     }
 
     /**
@@ -50,7 +214,7 @@ public class Orange {
      */
     private void doWork() {
         try {
-            Thread.sleep(state.timeToComplete);
+            Thread.sleep(recipe.cost(step));
         } catch (InterruptedException e) {
             System.err.println("Incomplete orange processing, juice may be bad");
         }
@@ -0,0 +1,65 @@
+/**
+ * Description: The {@code OrangeRing} class is a preallocated ring of orange slots shared by
+ * every stage of a {@code RingPlant}. An orange is written into its slot once by the fetcher
+ * and stays there while the peeler, squeezer and bottler work on it in turn, so handing an
+ * orange to the next stage costs nothing more than publishing a {@code Sequence}.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class OrangeRing {
+
+    /**
+     * Slots holding the oranges currently travelling through the plant.
+     */
+    private final Orange[] slots;
+    /**
+     * Mask used to map a sequence number onto a slot index.
+     */
+    private final int mask;
+
+    /**
+     * Constructs a new OrangeRing with the given number of slots.
+     *
+     * @param size Number of slots, must be a positive power of two.
+     * @throws IllegalArgumentException If {@code size} is not a positive power of two.
+     */
+    public OrangeRing(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a positive power of two: " + size);
+        }
+        slots = new Orange[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Gets the number of slots in the ring.
+     *
+     * @return The ring size.
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * Retrieves the orange stored for a sequence number.
+     * The caller must have observed the sequence as published by the upstream stage.
+     *
+     * @param sequence The sequence number of the orange.
+     * @return The orange stored in the matching slot.
+     */
+    public Orange get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Stores an orange for a sequence number.
+     * The caller must own the slot and publish the sequence afterwards.
+     *
+     * @param sequence The sequence number of the orange.
+     * @param o        The orange to store.
+     */
+    public void set(long sequence, Orange o) {
+        slots[(int) sequence & mask] = o;
+    }
+}
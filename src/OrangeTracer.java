@@ -0,0 +1,254 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: The {@code OrangeTracer} class records the lifecycle of oranges to a compact binary log,
+ * so that {@code TraceAnalyzer} can later work out where the time went for each orange.
+ * <p>
+ * Tracing is off unless the {@code juice.trace} system property names a log file. When it is on,
+ * every processing step of an orange, every mailbox enqueue and dequeue, and the moment the orange
+ * reaches a final step are recorded with the orange id, plant, recipe, step and a nanosecond
+ * timestamp. Records go into a buffer owned by the recording thread and are only written to the
+ * file through a {@code FileChannel} when that buffer fills up or the tracer is closed.
+ * The {@code juice.trace.sample} property traces only one orange in every N, deciding per orange
+ * so that sampled lifecycles are always complete.
+ * </p>
+ * The log starts with a header of {@link #MAGIC}, {@link #VERSION} and {@link #RECORD_SIZE},
+ * followed by records of orange id (long), timestamp (long), plant (short), recipe (byte),
+ * step (byte) and event (byte), all in little-endian order. {@code Recipe} keeps recipe ids and
+ * steps within a byte; plants beyond {@link #MAX_PLANT} cannot be traced.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class OrangeTracer {
+
+    /**
+     * Event recorded when an orange starts a processing step.
+     */
+    public static final byte STAGE_START = 0;
+    /**
+     * Event recorded when an orange finishes a processing step.
+     */
+    public static final byte STAGE_END = 1;
+    /**
+     * Event recorded when an orange is put into a mailbox.
+     */
+    public static final byte ENQUEUE = 2;
+    /**
+     * Event recorded when an orange is taken out of a mailbox.
+     */
+    public static final byte DEQUEUE = 3;
+    /**
+     * Event recorded when an orange reaches a final step of its recipe.
+     */
+    public static final byte DONE = 4;
+
+    /**
+     * Marker at the start of every trace log.
+     */
+    public static final int MAGIC = 0x4A554943;
+    /**
+     * Version of the record layout.
+     */
+    public static final short VERSION = 2;
+    /**
+     * Size of one record in bytes.
+     */
+    public static final short RECORD_SIZE = 21;
+    /**
+     * Highest plant identifier that fits in a record.
+     */
+    public static final int MAX_PLANT = Short.MAX_VALUE;
+    /**
+     * Size of the log header in bytes.
+     */
+    public static final int HEADER_SIZE = 8;
+
+    /**
+     * Size of each thread's record buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = RECORD_SIZE * 4096;
+    /**
+     * Whether tracing was switched on for this run.
+     */
+    private static final boolean ENABLED = System.getProperty("juice.trace") != null;
+    /**
+     * One orange in this many is traced, picked by a hash of its id.
+     */
+    private static final long SAMPLE = Math.max(1, Long.getLong("juice.trace.sample", 1));
+    /**
+     * Salt of the orange hash used for sampling, see {@code Orange.hash}.
+     */
+    private static final long SAMPLE_SALT = 0x73616D706C696E67L;
+    /**
+     * Channel of the trace log, {@code null} when tracing is off.
+     */
+    private static final FileChannel channel = ENABLED ? open(System.getProperty("juice.trace")) : null;
+    /**
+     * Every thread's record buffer, so the tracer can flush them all when it is closed.
+     */
+    private static final List<ByteBuffer> buffers = new ArrayList<>();
+    /**
+     * Record buffer of the current thread.
+     */
+    private static final ThreadLocal<ByteBuffer> buffer = ThreadLocal.withInitial(OrangeTracer::newBuffer);
+    /**
+     * Set once the tracer is closed; later records are dropped.
+     */
+    private static volatile boolean closed;
+
+    /**
+     * No instances; the tracer is used through its static methods.
+     */
+    private OrangeTracer() {
+    }
+
+    /**
+     * Records a lifecycle event for an orange at its current step.
+     * Does nothing when tracing is off or the orange is not sampled.
+     *
+     * @param o     The orange the event happened to.
+     * @param event One of {@link #STAGE_START}, {@link #STAGE_END}, {@link #ENQUEUE}, {@link #DEQUEUE}
+     *              or {@link #DONE}.
+     */
+    public static void record(Orange o, byte event) {
+        if (ENABLED) {
+            record(o, event, System.nanoTime());
+        }
+    }
+
+    /**
+     * Records a lifecycle event that happened at a given time for an orange at its current step.
+     * Does nothing when tracing is off or the orange is not sampled.
+     *
+     * @param o     The orange the event happened to.
+     * @param event Kind of event, see {@link #record(Orange, byte)}.
+     * @param time  Time of the event, from {@code System.nanoTime()}.
+     */
+    public static void record(Orange o, byte event, long time) {
+        if (ENABLED) {
+            record(o, o.getStep(), event, time);
+        }
+    }
+
+    /**
+     * Records a lifecycle event that happened at a given time for an orange at a given step,
+     * for callers that record the event after the orange may already have moved on.
+     * Does nothing when tracing is off or the orange is not sampled.
+     *
+     * @param o     The orange the event happened to.
+     * @param step  Step the orange was at when the event happened.
+     * @param event Kind of event, see {@link #record(Orange, byte)}.
+     * @param time  Time of the event, from {@code System.nanoTime()}.
+     * @throws IllegalStateException If the orange's plant does not fit in a record.
+     */
+    public static void record(Orange o, int step, byte event, long time) {
+        if (!ENABLED || Long.remainderUnsigned(Orange.hash(o.getId(), SAMPLE_SALT), SAMPLE) != 0 || closed) {
+            return;
+        }
+        if (o.getPlant() < 0 || o.getPlant() > MAX_PLANT) {
+            throw new IllegalStateException("Plant " + o.getPlant() + " cannot be traced");
+        }
+        ByteBuffer buf = buffer.get();
+        buf.putLong(o.getId());
+        buf.putLong(time);
+        buf.putShort((short) o.getPlant());
+        buf.put((byte) o.getRecipe().getId());
+        buf.put((byte) step);
+        buf.put(event);
+        if (buf.remaining() < RECORD_SIZE) {
+            flush(buf);
+        }
+    }
+
+    /**
+     * Checks whether tracing was switched on for this run, so callers can skip taking
+     * timestamps for events that will not be recorded.
+     *
+     * @return {@code true} if events are being recorded.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Writes out every thread's buffered records and closes the log.
+     * Must only be called once the threads that record events have stopped.
+     */
+    public static void close() {
+        if (!ENABLED || closed) {
+            return;
+        }
+        closed = true;
+        synchronized (buffers) {
+            for (ByteBuffer buf : buffers) {
+                flush(buf);
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Trace log close malfunction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates and registers the record buffer of the calling thread.
+     *
+     * @return The new buffer.
+     */
+    private static ByteBuffer newBuffer() {
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        synchronized (buffers) {
+            buffers.add(buf);
+        }
+        return buf;
+    }
+
+    /**
+     * Writes the records of a buffer to the log and empties it.
+     *
+     * @param buf The buffer to flush.
+     */
+    private static void flush(ByteBuffer buf) {
+        buf.flip();
+        try {
+            synchronized (channel) {
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Trace log write malfunction: " + e.getMessage());
+        }
+        buf.clear();
+    }
+
+    /**
+     * Creates the trace log and writes its header.
+     *
+     * @param path Location of the log file.
+     * @return The channel of the log.
+     */
+    private static FileChannel open(String path) {
+        try {
+            FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putShort(VERSION).putShort(RECORD_SIZE).flip();
+            while (header.hasRemaining()) {
+                ch.write(header);
+            }
+            return ch;
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
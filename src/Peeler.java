@@ -21,9 +21,9 @@ public class Peeler implements Runnable {
      */
     private final BlockingMailBox peeledMailBox;
     /**
-     * Counter to track the number of oranges peeled.
+     * Sequence number of the last orange peeled, readable by any thread while the peeler runs.
      */
-    private int orangesPeeled;
+    private final Sequence orangesPeeled = new Sequence();
     /**
      * Flag to control whether the thread should continue working.
      */
@@ -31,7 +31,7 @@ public class Peeler implements Runnable {
 
     /**
      * Constructs a new Peeler with specified mailboxes.
-     * Initializes the thread and sets the initial count of peeled oranges to zero.
+     * Initializes the thread; the count of peeled oranges starts at zero.
      *
      * @param fetchedMailBox  The mailbox containing fetched oranges.
      * @param squeezedMailBox The mailbox where peeled oranges will be stored.
@@ -39,7 +39,6 @@ public class Peeler implements Runnable {
     Peeler(BlockingMailBox fetchedMailBox, BlockingMailBox squeezedMailBox) {
         this.fetchedMailBox = fetchedMailBox;
         this.peeledMailBox = squeezedMailBox;
-        orangesPeeled = 0;
         thread = new Thread(this, "Peeler");
     }
 
@@ -95,9 +94,9 @@ public class Peeler implements Runnable {
     public void peelOrange(Orange o) {
         while (o.getState() == Orange.State.Peeled) {
             o.runProcess();
+            orangesPeeled.increment();
             peeledMailBox.put(o);
         }
-        orangesPeeled++; // Increment the counter after processing the orange
     }
 
     /**
@@ -105,7 +104,7 @@ public class Peeler implements Runnable {
      *
      * @return The count of peeled oranges.
      */
-    public int getOrangesPeeled() {
-        return orangesPeeled;
+    public long getOrangesPeeled() {
+        return orangesPeeled.get() + 1;
     }
 }
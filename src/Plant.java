@@ -9,13 +9,12 @@
  * Date: 02/21/2025
  */
 
-public class Plant implements Runnable {
+public class Plant extends AbstractPlant {
 
     /**
      * Duration for which the juice processing plant runs.
      */
     public static final long PROCESSING_TIME = 5 * 1000;
-
     /**
      * Number of plant instances.
      */
@@ -24,10 +23,6 @@ public class Plant implements Runnable {
      * Oranges required to produce one bottle of juice.
      */
     public final int ORANGES_PER_BOTTLE = 3;
-    /**
-     * Processing thread for the plant.
-     */
-    final Thread thread;
     /**
      * Shared mailboxes for different stages of processing.
      */
@@ -37,28 +32,37 @@ public class Plant implements Runnable {
     /**
      * Processing components: Fetcher, Peeler, Squeezer, and Bottler.
      */
-    private Fetcher fetcher = new Fetcher(fetchedMailBox);
-    private Peeler peeler = new Peeler(fetchedMailBox, peeledMailBox);
-    private Squeezer squeezer = new Squeezer(peeledMailBox, squeezedMailBox);
-    private Bottler bottler = new Bottler(squeezedMailBox);
-    private int orangesProvided;
-    private int orangesProcessed;
-    private volatile boolean timeToWork;
+    private Fetcher fetcher;
+    private Peeler peeler;
+    private Squeezer squeezer;
+    private Bottler bottler;
+    private long orangesProvided;
+    private long orangesProcessed;
 
     /**
-     * Constructs a new Plant instance.
+     * Constructs a new Plant instance that runs for {@link #PROCESSING_TIME}.
      *
      * @param threadNum Identifier for the plant thread.
      */
     Plant(int threadNum) {
-        fetcher = new Fetcher(fetchedMailBox);
+        this(threadNum, PROCESSING_TIME);
+    }
+
+    /**
+     * Constructs a new Plant instance that runs for the given time.
+     *
+     * @param threadNum      Identifier for the plant thread.
+     * @param processingTime Duration in milliseconds, {@code Long.MAX_VALUE} to run until stopped.
+     */
+    Plant(int threadNum, long processingTime) {
+        super("Plant[" + threadNum + "]", processingTime);
+        fetcher = new Fetcher(fetchedMailBox, threadNum);
         peeler = new Peeler(fetchedMailBox, peeledMailBox);
         squeezer = new Squeezer(peeledMailBox, squeezedMailBox);
         bottler = new Bottler(squeezedMailBox);
 
         orangesProvided = 0;
         orangesProcessed = 0;
-        thread = new Thread(this, "Plant[" + threadNum + "]");
     }
 
     /**
@@ -81,75 +85,67 @@ public class Plant implements Runnable {
         for (Plant p : plants) {
             p.waitToStop();
         }
+        OrangeTracer.close();
 
         // Outputs the results
-        int totalProvided = 0;
-        int totalProcessed = 0;
-        int totalBottles = 0;
-        int totalWasted = 0;
+        PlantSnapshot total = snapshot(plants);
+        long totalBottles = 0;
+        long totalWasted = 0;
         for (Plant p : plants) {
-            totalProvided += p.getProvidedOranges();
-            totalProcessed += p.getProcessedOranges();
             totalBottles += p.getBottles();
             totalWasted += p.getWaste();
         }
-        System.out.println("Total fetched/processed = " + totalProvided + "/" + totalProcessed);
+        System.out.println("Total fetched/processed = " + total.getFetched() + "/" + total.getBottled());
         System.out.println("Created " + totalBottles + " bottles, wasted " + totalWasted + " oranges");
     }
 
     /**
-     * Delays execution for a specified time.
+     * Takes a snapshot of the combined counters of several plants.
+     * Safe to call from any thread, as often as needed, while the plants are running.
+     * <p>
+     * Every stage counts an orange before handing it to the next stage, and the counters are
+     * read from the last stage to the first, so the snapshot never shows more oranges in a
+     * later stage than in an earlier one.
+     * </p>
      *
-     * @param time   Duration in milliseconds.
-     * @param errMsg Error message in case of interruption.
+     * @param plants The plants to include.
+     * @return The summed counters of the plants.
      */
-    private static void delay(long time, String errMsg) {
-        long sleepTime = Math.max(1, time);
-        try {
-            Thread.sleep(sleepTime);
-        } catch (InterruptedException e) {
-            System.err.println(errMsg);
+    public static PlantSnapshot snapshot(Plant... plants) {
+        long bottled = 0;
+        long squeezed = 0;
+        long peeled = 0;
+        long fetched = 0;
+        for (Plant p : plants) {
+            bottled += p.bottler.getOrangesBottled();
+            squeezed += p.squeezer.getOrangesSqueezed();
+            peeled += p.peeler.getOrangesPeeled();
+            fetched += p.fetcher.getOrangesFetched();
         }
+        return new PlantSnapshot(System.nanoTime(), fetched, peeled, squeezed, bottled);
     }
 
-    /**
-     * Starts the plant's processing.
-     */
-    public void startPlant() {
-        timeToWork = true;
-        thread.start();
-    }
-
-    /**
-     * Stops the plant's processing.
-     */
-    public void stopPlant() {
-        timeToWork = false;
+    @Override
+    protected String getProduct() {
+        return "oranges";
     }
 
     /**
-     * Waits for the plant's thread to stop execution.
+     * Starts the fetcher, peeler, squeezer and bottler.
      */
-    public void waitToStop() {
-        try {
-            thread.join();
-        } catch (InterruptedException e) {
-            System.err.println(thread.getName() + " stop malfunction");
-        }
-    }
-
-    /**
-     * Executes the plant's processing cycle.
-     */
-    public void run() {
-        System.out.println(Thread.currentThread().getName() + " Processing oranges ");
+    @Override
+    protected void startStages() {
         fetcher.startFetcher();
         peeler.startPeeler();
         squeezer.startSqueezer();
         bottler.startBottler();
+    }
 
-        delay(PROCESSING_TIME, "Plant malfunction");
-
+    /**
+     * Stops every stage and adds up what the plant produced.
+     */
+    @Override
+    protected void stopStages() {
         fetchedMailBox.put(null);
         peeledMailBox.put(null);
         squeezedMailBox.put(null);
@@ -163,38 +159,46 @@ public class Plant implements Runnable {
         bottler.waitToStop();
         orangesProvided += fetcher.getOrangesFetched();
         orangesProcessed += bottler.getOrangesBottled();
-        System.out.println(Thread.currentThread().getName() + " Done");
     }
 
-    public int getFetchedOranges() {
+    /**
+     * Takes a snapshot of this plant's counters; see {@link #snapshot(Plant...)}.
+     *
+     * @return The plant's counters.
+     */
+    public PlantSnapshot snapshot() {
+        return snapshot(this);
+    }
+
+    public long getFetchedOranges() {
         return fetcher.getOrangesFetched();
     }
 
-    public int getPeeledOranges() {
+    public long getPeeledOranges() {
         return peeler.getOrangesPeeled();
     }
 
-    public int getSqueezedOranges() {
+    public long getSqueezedOranges() {
         return squeezer.getOrangesSqueezed();
     }
 
-    public int getOrangesBottled() {
+    public long getOrangesBottled() {
         return bottler.getOrangesBottled();
     }
 
-    public int getProvidedOranges() {
+    public long getProvidedOranges() {
         return orangesProvided;
     }
 
-    public int getProcessedOranges() {
+    public long getProcessedOranges() {
         return orangesProcessed;
     }
 
-    public int getBottles() {
+    public long getBottles() {
         return orangesProcessed / ORANGES_PER_BOTTLE;
     }
 
-    public int getWaste() {
+    public long getWaste() {
         return orangesProvided - orangesProcessed;
     }
 }
@@ -0,0 +1,129 @@
+/**
+ * Description: The {@code PlantSnapshot} class is an immutable view of how many oranges one or more
+ * plants have fetched, peeled, squeezed and bottled at a point in time.
+ * <p>
+ * Snapshots are taken with {@code Plant.snapshot}, {@code RingPlant.snapshot} or
+ * {@code RecipePlant.snapshot} while the plants are running. Taking one only
+ * reads the stages' padded counters, so it can be done many times per second from any thread
+ * without slowing the plants down. The counters are read from the last stage to the first,
+ * which guarantees that a snapshot never shows more oranges in a later stage than in an earlier one.
+ * </p>
+ * <p>
+ * Recipe plants only count the oranges they fetch and the ones that reach a final step, since
+ * their middle steps depend on the recipe and run on shared stations. Their snapshots report the
+ * completed oranges as bottled and the peeled and squeezed counts as {@link #NOT_COUNTED}.
+ * </p>
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class PlantSnapshot {
+
+    /**
+     * Reported for a stage the plants do not count.
+     */
+    public static final long NOT_COUNTED = -1;
+
+    /**
+     * Time the snapshot was taken, from {@code System.nanoTime()}.
+     */
+    private final long timestamp;
+    /**
+     * Number of oranges that have completed each stage.
+     */
+    private final long fetched;
+    private final long peeled;
+    private final long squeezed;
+    private final long bottled;
+
+    /**
+     * Constructs a new PlantSnapshot.
+     *
+     * @param timestamp Time the snapshot was taken, from {@code System.nanoTime()}.
+     * @param fetched   Number of oranges fetched.
+     * @param peeled    Number of oranges peeled.
+     * @param squeezed  Number of oranges squeezed.
+     * @param bottled   Number of oranges bottled.
+     */
+    PlantSnapshot(long timestamp, long fetched, long peeled, long squeezed, long bottled) {
+        this.timestamp = timestamp;
+        this.fetched = fetched;
+        this.peeled = peeled;
+        this.squeezed = squeezed;
+        this.bottled = bottled;
+    }
+
+    /**
+     * Constructs a new PlantSnapshot for plants that only count the oranges going in and coming
+     * out. The oranges that reached a final step are reported as bottled; peeled and squeezed
+     * are {@link #NOT_COUNTED}.
+     *
+     * @param timestamp Time the snapshot was taken, from {@code System.nanoTime()}.
+     * @param fetched   Number of oranges fetched.
+     * @param completed Number of oranges that reached a final step.
+     */
+    PlantSnapshot(long timestamp, long fetched, long completed) {
+        this(timestamp, fetched, NOT_COUNTED, NOT_COUNTED, completed);
+    }
+
+    /**
+     * Gets the time the snapshot was taken.
+     *
+     * @return The timestamp, comparable only with other {@code System.nanoTime()} values.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getFetched() {
+        return fetched;
+    }
+
+    /**
+     * Gets the number of oranges peeled.
+     *
+     * @return The count of peeled oranges, or {@link #NOT_COUNTED} for recipe plants.
+     */
+    public long getPeeled() {
+        return peeled;
+    }
+
+    /**
+     * Gets the number of oranges squeezed.
+     *
+     * @return The count of squeezed oranges, or {@link #NOT_COUNTED} for recipe plants.
+     */
+    public long getSqueezed() {
+        return squeezed;
+    }
+
+    public long getBottled() {
+        return bottled;
+    }
+
+    /**
+     * Gets the number of oranges fetched but not yet bottled.
+     *
+     * @return The count of oranges in the plant.
+     */
+    public long getInFlight() {
+        return fetched - bottled;
+    }
+
+    /**
+     * Gets the bottling rate between an earlier snapshot and this one.
+     *
+     * @param earlier A snapshot of the same plants taken before this one.
+     * @return The number of oranges bottled per second in between.
+     */
+    public double bottledPerSecond(PlantSnapshot earlier) {
+        long nanos = timestamp - earlier.timestamp;
+        return nanos > 0 ? (bottled - earlier.bottled) * 1e9 / nanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "fetched=" + fetched + (peeled != NOT_COUNTED ? " peeled=" + peeled : "")
+                + (squeezed != NOT_COUNTED ? " squeezed=" + squeezed : "") + " bottled=" + bottled;
+    }
+}
@@ -0,0 +1,257 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: The {@code Recipe} class describes a product line as a state machine over named steps.
+ * Each step has a processing time and a list of next steps; an orange that finishes a step with
+ * several next steps takes one of them (a branch), and a step listed as next by several steps
+ * collects oranges from all of them (a merge). Steps without next steps are final.
+ * <p>
+ * The description is compiled into flat transition and cost tables when the recipe is created,
+ * so moving an orange to its next step is a couple of array reads. Steps must be listed so that
+ * every next step comes after the step leading to it, which keeps the graph free of cycles.
+ * </p>
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class Recipe {
+
+    /**
+     * Most steps a recipe may have, and most recipes that may be created; lifecycle traces
+     * store both the step and the recipe id in one byte.
+     */
+    public static final int MAX_STEPS = 256;
+    public static final int MAX_RECIPES = 256;
+    /**
+     * Every recipe created so far, indexed by id.
+     */
+    private static final List<Recipe> recipes = new ArrayList<>();
+    /**
+     * Salt of the orange hash used to pick branches, see {@link Orange#hash(long, long)}.
+     */
+    private static final long BRANCH_SALT = 0x6272616E63686573L;
+
+    /**
+     * The original juice line: the {@code Orange.State} sequence with its processing times.
+     */
+    public static final Recipe ORANGE_JUICE = fromStates("OrangeJuice", Orange.State.values());
+    /**
+     * Marmalade line: peeled oranges are either squeezed or zested and both go into the pot.
+     */
+    public static final Recipe ORANGE_MARMALADE = new Recipe("OrangeMarmalade",
+            new String[]{"Fetched", "Peeled", "Squeezed", "Zested", "Boiled", "Jarred", "Processed"},
+            new int[]{15, 38, 29, 22, 45, 17, 1},
+            new String[][]{{"Peeled"}, {"Squeezed", "Zested"}, {"Boiled"}, {"Boiled"}, {"Jarred"}, {"Processed"}, {}});
+
+    /**
+     * Identifier of the recipe, recorded in lifecycle traces.
+     */
+    private final int id;
+    /**
+     * Name of the product line.
+     */
+    private final String name;
+    /**
+     * Step names, indexed by step.
+     */
+    private final String[] steps;
+    /**
+     * Processing time in milliseconds, indexed by step.
+     */
+    private final int[] costs;
+    /**
+     * Next steps of step {@code s} are {@code next[first[s]]} up to but excluding {@code next[first[s + 1]]}.
+     */
+    private final int[] first;
+    private final int[] next;
+
+    /**
+     * Constructs and compiles a new Recipe. The first step is the one the fetcher performs.
+     *
+     * @param name      Name of the product line.
+     * @param steps     Step names, in an order where every next step comes after its predecessors.
+     * @param costs     Processing time of each step in milliseconds.
+     * @param nextSteps Names of the next steps of each step; empty for final steps.
+     * @throws IllegalArgumentException If the tables do not match, describe a cycle or have more than
+     *                                  {@link #MAX_STEPS} steps, or {@link #MAX_RECIPES} recipes already exist.
+     */
+    public Recipe(String name, String[] steps, int[] costs, String[][] nextSteps) {
+        if (steps.length == 0 || steps.length != costs.length || steps.length != nextSteps.length) {
+            throw new IllegalArgumentException(name + ": steps, costs and next steps must have the same length");
+        }
+        if (steps.length > MAX_STEPS) {
+            throw new IllegalArgumentException(name + ": more than " + MAX_STEPS + " steps");
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (int s = 0; s < steps.length; s++) {
+            if (index.put(steps[s], s) != null) {
+                throw new IllegalArgumentException(name + ": duplicate step " + steps[s]);
+            }
+        }
+
+        this.name = name;
+        this.steps = steps.clone();
+        this.costs = costs.clone();
+        first = new int[steps.length + 1];
+        int edges = 0;
+        for (String[] n : nextSteps) {
+            edges += n.length;
+        }
+        next = new int[edges];
+        int e = 0;
+        for (int s = 0; s < steps.length; s++) {
+            first[s] = e;
+            for (String n : nextSteps[s]) {
+                Integer to = index.get(n);
+                if (to == null) {
+                    throw new IllegalArgumentException(name + ": unknown step " + n);
+                }
+                if (to <= s) {
+                    throw new IllegalArgumentException(name + ": step " + n + " must come after " + steps[s]);
+                }
+                next[e++] = to;
+            }
+        }
+        first[steps.length] = e;
+        if (isFinal(0)) {
+            throw new IllegalArgumentException(name + ": the first step cannot be final");
+        }
+
+        synchronized (recipes) {
+            if (recipes.size() == MAX_RECIPES) {
+                throw new IllegalArgumentException(name + ": more than " + MAX_RECIPES + " recipes");
+            }
+            id = recipes.size();
+            recipes.add(this);
+        }
+    }
+
+    /**
+     * Builds a linear recipe from a sequence of states.
+     *
+     * @param name   Name of the product line.
+     * @param states States in processing order; the last one is final.
+     * @return The new recipe.
+     */
+    private static Recipe fromStates(String name, Orange.State[] states) {
+        String[] steps = new String[states.length];
+        int[] costs = new int[states.length];
+        String[][] nextSteps = new String[states.length][];
+        for (int s = 0; s < states.length; s++) {
+            steps[s] = states[s].name();
+            costs[s] = states[s].timeToComplete;
+            nextSteps[s] = s < states.length - 1 ? new String[]{states[s].getNext().name()} : new String[0];
+        }
+        return new Recipe(name, steps, costs, nextSteps);
+    }
+
+    /**
+     * Looks up a recipe by its identifier.
+     *
+     * @param id The recipe identifier.
+     * @return The recipe, or {@code null} if there is none with that identifier.
+     */
+    public static Recipe byId(int id) {
+        synchronized (recipes) {
+            return id >= 0 && id < recipes.size() ? recipes.get(id) : null;
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of steps in the recipe.
+     *
+     * @return The step count.
+     */
+    public int size() {
+        return steps.length;
+    }
+
+    /**
+     * Gets the name of a step.
+     *
+     * @param step The step index.
+     * @return The step's name.
+     */
+    public String stepName(int step) {
+        return steps[step];
+    }
+
+    /**
+     * Gets the processing time of a step.
+     *
+     * @param step The step index.
+     * @return The processing time in milliseconds.
+     */
+    public int cost(int step) {
+        return costs[step];
+    }
+
+    /**
+     * Checks whether a step is final, i.e. has no next step.
+     *
+     * @param step The step index.
+     * @return {@code true} if the step is final.
+     */
+    public boolean isFinal(int step) {
+        return first[step] == first[step + 1];
+    }
+
+    /**
+     * Gets the number of next steps of a step.
+     *
+     * @param step The step index.
+     * @return The number of next steps.
+     */
+    public int nextCount(int step) {
+        return first[step + 1] - first[step];
+    }
+
+    /**
+     * Gets one of the next steps of a step.
+     *
+     * @param step The step index.
+     * @param i    Which next step, from {@code 0} to {@code nextCount(step) - 1}.
+     * @return The index of the next step.
+     */
+    public int nextStep(int step, int i) {
+        return next[first[step] + i];
+    }
+
+    /**
+     * Picks the step an orange moves to after finishing a step. Branches are picked from a hash
+     * of the orange's identifier, so they are spread evenly however the plants interleave and
+     * independently of trace sampling.
+     *
+     * @param step     The step the orange finished.
+     * @param orangeId Identifier of the orange.
+     * @return The index of the next step.
+     * @throws IllegalStateException If the step is final.
+     */
+    public int next(int step, long orangeId) {
+        int from = first[step];
+        int count = first[step + 1] - from;
+        if (count == 1) {
+            return next[from];
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Already at final step");
+        }
+        return next[from + (int) Long.remainderUnsigned(Orange.hash(orangeId, BRANCH_SALT), count)];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Description: The {@code RecipeFetcher} class fetches oranges for a {@code RecipePlant}.
+ * It creates oranges for the plant's recipe, performs the recipe's first step on them,
+ * and hands them to the shared stations.
+ * This class implements the {@code Runnable} interface to allow execution in a separate thread.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class RecipeFetcher implements Runnable {
+
+    /**
+     * Thread instance to handle fetching in a separate thread.
+     */
+    private final Thread thread;
+    /**
+     * Stations the fetched oranges are handed to.
+     */
+    private final Stations stations;
+    /**
+     * Recipe the fetched oranges are made with.
+     */
+    private final Recipe recipe;
+    /**
+     * Identifier of the plant the fetched oranges belong to.
+     */
+    private final int plant;
+    /**
+     * Sequence number of the last orange fetched, readable by any thread while the fetcher runs.
+     */
+    private final Sequence orangesFetched = new Sequence();
+    /**
+     * Flag to control whether the thread should continue working.
+     */
+    private volatile boolean timeToWork;
+
+    /**
+     * Constructs a new RecipeFetcher.
+     *
+     * @param stations Stations the fetched oranges are handed to.
+     * @param recipe   Recipe the fetched oranges are made with.
+     * @param plant    Identifier of the plant the fetched oranges belong to.
+     */
+    RecipeFetcher(Stations stations, Recipe recipe, int plant) {
+        this.stations = stations;
+        this.recipe = recipe;
+        this.plant = plant;
+        thread = new Thread(this, "Fetcher[" + plant + "]");
+    }
+
+    /**
+     * Stops the fetching process by setting the flag to {@code false}.
+     */
+    public void stopFetcher() {
+        timeToWork = false;
+    }
+
+    /**
+     * Starts the fetching process by setting the flag to {@code true} and starting the thread.
+     */
+    public void startFetcher() {
+        timeToWork = true;
+        thread.start();
+    }
+
+    /**
+     * Waits for the thread to stop execution by joining it.
+     * If the thread is interrupted, an error message is printed.
+     */
+    public void waitToStop() {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            System.err.println(thread.getName() + " stop malfunction");
+        }
+    }
+
+    /**
+     * Defines the main execution logic for the fetching thread.
+     * Continuously creates and processes oranges while {@code timeToWork} is {@code true}.
+     */
+    @Override
+    public void run() {
+        while (timeToWork) {
+            Orange orange = new Orange(plant, recipe);
+            orange.runProcess();
+            orangesFetched.increment();
+            stations.forward(orange);
+        }
+    }
+
+    /**
+     * Gets the total number of oranges fetched.
+     *
+     * @return The count of fetched oranges.
+     */
+    public long getOrangesFetched() {
+        return orangesFetched.get() + 1;
+    }
+}
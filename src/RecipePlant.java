@@ -0,0 +1,216 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: The {@code RecipePlant} class is a plant whose stages come from a {@code Recipe}
+ * rather than being wired by hand. Its fetcher makes oranges for the recipe, and the remaining
+ * steps, including any branches and merges, are performed by {@code Station} worker pools that
+ * are shared with every other recipe plant bound to the same {@code Stations}.
+ * <p>
+ * Several product lines can therefore run side by side in one JVM on the same workers, each orange
+ * taking the costs and route of its own recipe.
+ * </p>
+ * <p>
+ * {@code main} reads the hedging settings from system properties: {@code juice.hedge} hedge workers
+ * per station (default 0, off), {@code juice.hedge.percentile} straggler percentile (default 95),
+ * and, to simulate slow workers, {@code juice.stall.rate} and {@code juice.stall.factor}.
+ * </p>
+ * Author: @author mcguzelocak
+ * Date: 10/19/2026
+ */
+
+public class RecipePlant extends AbstractPlant {
+
+    /**
+     * Number of workers in each shared station.
+     */
+    private static final int WORKERS_PER_STATION = 2;
+    /**
+     * Largest end-to-end latency in milliseconds told apart in the latency histogram.
+     */
+    private static final int MAX_LATENCY = 10 * 1000;
+    /**
+     * Identifier of the plant.
+     */
+    private final int id;
+    /**
+     * Recipe the plant produces.
+     */
+    private final Recipe recipe;
+    /**
+     * Fetcher feeding the plant's oranges into the stations.
+     */
+    private final RecipeFetcher fetcher;
+    /**
+     * Counter of oranges that reached a final step; any station worker may update it.
+     */
+    private final LongAdder orangesCompleted = new LongAdder();
+    /**
+     * Completed oranges by end-to-end latency in milliseconds; the last bucket holds everything slower.
+     */
+    private final AtomicLongArray latencies = new AtomicLongArray(MAX_LATENCY + 1);
+
+    /**
+     * Constructs a new RecipePlant and binds its recipe to the shared stations.
+     *
+     * @param threadNum      Identifier for the plant thread, unique among the plants of the stations.
+     * @param recipe         Recipe the plant produces.
+     * @param stations       Stations shared with other plants.
+     * @param processingTime Duration in milliseconds, {@code Long.MAX_VALUE} to run until stopped.
+     */
+    RecipePlant(int threadNum, Recipe recipe, Stations stations, long processingTime) {
+        super("RecipePlant[" + threadNum + "]", processingTime);
+        this.id = threadNum;
+        this.recipe = recipe;
+        stations.bind(recipe);
+        stations.register(this);
+        fetcher = new RecipeFetcher(stations, recipe, threadNum);
+    }
+
+    /**
+     * Entry point to run juice and marmalade plants on shared stations and summarize results.
+     *
+     * @param args Command-line arguments.
+     */
+    public static void main(String[] args) {
+        Stations stations = new Stations(WORKERS_PER_STATION, Integer.getInteger("juice.hedge", 0),
+                Integer.getInteger("juice.hedge.percentile", 95) / 100.0,
+                Double.parseDouble(System.getProperty("juice.stall.rate", "0")),
+                Double.parseDouble(System.getProperty("juice.stall.factor", "10")));
+        RecipePlant[] plants = {
+                new RecipePlant(0, Recipe.ORANGE_JUICE, stations, Plant.PROCESSING_TIME),
+                new RecipePlant(1, Recipe.ORANGE_JUICE, stations, Plant.PROCESSING_TIME),
+                new RecipePlant(2, Recipe.ORANGE_MARMALADE, stations, Plant.PROCESSING_TIME)
+        };
+
+        stations.startStations();
+        for (RecipePlant p : plants) {
+            p.startPlant();
+        }
+        for (RecipePlant p : plants) {
+            p.waitToStop();
+        }
+        stations.stopStations(); // finishes the oranges still in flight
+        OrangeTracer.close();
+
+        // Outputs the results
+        for (RecipePlant p : plants) {
+            PlantSnapshot snapshot = p.snapshot();
+            System.out.println(p.thread.getName() + " " + p.recipe + " fetched/processed = "
+                    + snapshot.getFetched() + "/" + snapshot.getBottled()
+                    + ", latency p50/p99 = " + p.getLatency(0.5) + "/" + p.getLatency(0.99) + " ms");
+        }
+        for (Station s : stations.getStations()) {
+            System.out.println("Station " + s.getName() + " processed " + s.getOrangesProcessed()
+                    + " oranges, " + s.getStragglers() + " stragglers, " + s.getHedgesWon() + " hedges won");
+        }
+        PlantSnapshot total = snapshot(plants);
+        System.out.println("Total fetched/processed = " + total.getFetched() + "/" + total.getBottled());
+    }
+
+    /**
+     * Takes a snapshot of the combined counters of several recipe plants.
+     * Safe to call from any thread, as often as needed, while the plants are running.
+     * <p>
+     * Oranges are counted as fetched before they are handed to the stations, and the oranges
+     * that reached a final step are read before the fetched ones, so the snapshot never shows
+     * more oranges completed than fetched; see {@link Plant#snapshot(Plant...)}. The middle steps
+     * depend on each plant's recipe and are not counted per plant.
+     * </p>
+     *
+     * @param plants The plants to include.
+     * @return The summed counters of the plants, with completed oranges reported as bottled and
+     * the peeled and squeezed counts as {@link PlantSnapshot#NOT_COUNTED}.
+     */
+    public static PlantSnapshot snapshot(RecipePlant... plants) {
+        long completed = 0;
+        long fetched = 0;
+        for (RecipePlant p : plants) {
+            completed += p.orangesCompleted.sum();
+            fetched += p.fetcher.getOrangesFetched();
+        }
+        return new PlantSnapshot(System.nanoTime(), fetched, completed);
+    }
+
+    @Override
+    protected String getProduct() {
+        return recipe.getName();
+    }
+
+    /**
+     * Starts the fetcher. Only the fetcher belongs to the plant; the shared stations
+     * are started and stopped separately.
+     */
+    @Override
+    protected void startStages() {
+        fetcher.startFetcher();
+    }
+
+    /**
+     * Stops the fetcher; the shared stations finish the oranges still in flight.
+     */
+    @Override
+    protected void stopStages() {
+        fetcher.stopFetcher();
+        fetcher.waitToStop();
+    }
+
+    /**
+     * Receives an orange that reached a final step of the plant's recipe.
+     *
+     * @param o The finished orange.
+     */
+    void complete(Orange o) {
+        long latency = (System.nanoTime() - o.getCreated()) / 1_000_000;
+        latencies.incrementAndGet((int) Math.min(latency, MAX_LATENCY));
+        orangesCompleted.increment();
+    }
+
+    /**
+     * Takes a snapshot of this plant's counters; see {@link #snapshot(RecipePlant...)}.
+     *
+     * @return The plant's counters.
+     */
+    public PlantSnapshot snapshot() {
+        return snapshot(this);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    public long getProvidedOranges() {
+        return fetcher.getOrangesFetched();
+    }
+
+    public long getProcessedOranges() {
+        return orangesCompleted.sum();
+    }
+
+    /**
+     * Gets a percentile of the end-to-end latency of the completed oranges, from creation
+     * to reaching a final step.
+     *
+     * @param percentile The percentile, between 0 and 1.
+     * @return The latency in milliseconds, or {@code 0} if no orange has completed.
+     */
+    public long getLatency(double percentile) {
+        long total = 0;
+        for (int i = 0; i <= MAX_LATENCY; i++) {
+            total += latencies.get(i);
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i <= MAX_LATENCY; i++) {
+            seen += latencies.get(i);
+            if (seen >= rank && seen > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
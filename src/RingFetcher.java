@@ -0,0 +1,109 @@
+/**
+ * Description: The {@code RingFetcher} class fetches oranges for a {@code RingPlant}.
+ * It creates and processes oranges and writes them into the shared ring, waiting for the
+ * last stage to free a slot whenever the ring is full.
+ * This class implements the {@code Runnable} interface to allow execution in a separate thread.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class RingFetcher implements Runnable {
+
+    /**
+     * Thread instance to handle fetching in a separate thread.
+     */
+    private final Thread thread;
+    /**
+     * Ring in which fetched oranges are stored.
+     */
+    private final OrangeRing ring;
+    /**
+     * Barrier on the last stage, used to avoid overwriting oranges still in the plant.
+     */
+    private final SequenceBarrier wrapBarrier;
+    /**
+     * Sequence of the last orange written into the ring.
+     */
+    private final Sequence cursor;
+    /**
+     * Identifier of the plant the fetched oranges belong to.
+     */
+    private final int plant;
+    /**
+     * Flag to control whether the thread should continue working.
+     */
+    private volatile boolean timeToWork;
+
+    /**
+     * Constructs a new RingFetcher writing into the given ring.
+     *
+     * @param ring        The ring in which fetched oranges are stored.
+     * @param cursor      Sequence published for every orange written into the ring.
+     * @param wrapBarrier Barrier on the sequence of the last stage of the plant.
+     * @param plant       Identifier of the plant the fetched oranges belong to.
+     */
+    RingFetcher(OrangeRing ring, Sequence cursor, SequenceBarrier wrapBarrier, int plant) {
+        this.ring = ring;
+        this.plant = plant;
+        this.cursor = cursor;
+        this.wrapBarrier = wrapBarrier;
+        thread = new Thread(this, "RingFetcher");
+    }
+
+    /**
+     * Stops the fetching process and releases the thread if it is waiting for a free slot.
+     */
+    public void stopFetcher() {
+        timeToWork = false;
+        wrapBarrier.alert();
+    }
+
+    /**
+     * Starts the fetching process by setting the flag to {@code true} and starting the thread.
+     */
+    public void startFetcher() {
+        timeToWork = true;
+        thread.start();
+    }
+
+    /**
+     * Waits for the thread to stop execution by joining it.
+     * If the thread is interrupted, an error message is printed.
+     */
+    public void waitToStop() {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            System.err.println(thread.getName() + " stop malfunction");
+        }
+    }
+
+    /**
+     * Defines the main execution logic for the fetching thread.
+     * Continuously creates and processes oranges while {@code timeToWork} is {@code true}.
+     */
+    @Override
+    public void run() {
+        long next = cursor.get() + 1;
+        while (timeToWork) {
+            Orange orange = new Orange(plant);
+            orange.runProcess();
+            long wrapPoint = next - ring.size();
+            if (wrapBarrier.waitFor(wrapPoint) < wrapPoint) {
+                break; // Plant is stopping, the orange never made it into the ring.
+            }
+            ring.set(next, orange);
+            cursor.set(next);
+            next++;
+        }
+    }
+
+    /**
+     * Gets the total number of oranges fetched.
+     *
+     * @return The count of fetched oranges.
+     */
+    public long getOrangesFetched() {
+        return cursor.get() + 1;
+    }
+}
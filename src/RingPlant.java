@@ -0,0 +1,194 @@
+/**
+ * Description: The {@code RingPlant} class is an alternative engine for the orange juice plant.
+ * Instead of copying each orange through three {@code BlockingMailBox} objects, every orange is
+ * stored once in a preallocated {@code OrangeRing} and the peeler, squeezer and bottler follow it
+ * with their own {@code Sequence}, each one gated on the stage before it.
+ * <p>
+ * Handing an orange to the next stage takes no lock and allocates nothing; the fetcher only
+ * waits when the ring is full, i.e. when the bottler is a full ring behind it.
+ * </p>
+ * Author: @author mcguzelocak
+ * Date: 10/19/2026
+ */
+
+public class RingPlant extends AbstractPlant {
+
+    /**
+     * Number of plant instances.
+     */
+    private static final int NUM_PLANTS = 2;
+    /**
+     * Number of slots in each plant's ring, must be a power of two.
+     */
+    private static final int RING_SIZE = 4;
+    /**
+     * Oranges required to produce one bottle of juice.
+     */
+    public final int ORANGES_PER_BOTTLE = 3;
+    /**
+     * Ring shared by all stages of the plant.
+     */
+    private final OrangeRing ring = new OrangeRing(RING_SIZE);
+    /**
+     * Sequences published by each stage of processing.
+     */
+    private final Sequence fetchedSequence = new Sequence();
+    private final Sequence peeledSequence = new Sequence();
+    private final Sequence squeezedSequence = new Sequence();
+    private final Sequence bottledSequence = new Sequence();
+    /**
+     * Processing components: fetcher, peeler, squeezer, and bottler.
+     */
+    private final RingFetcher fetcher;
+    private final RingStage peeler;
+    private final RingStage squeezer;
+    private final RingStage bottler;
+    private long orangesProvided;
+    private long orangesProcessed;
+
+    /**
+     * Constructs a new RingPlant instance.
+     *
+     * @param threadNum Identifier for the plant thread.
+     */
+    RingPlant(int threadNum) {
+        super("RingPlant[" + threadNum + "]", Plant.PROCESSING_TIME);
+        fetcher = new RingFetcher(ring, fetchedSequence, new SequenceBarrier(bottledSequence), threadNum);
+        peeler = new RingStage(ring, new SequenceBarrier(fetchedSequence), peeledSequence, Orange.State.Peeled);
+        squeezer = new RingStage(ring, new SequenceBarrier(peeledSequence), squeezedSequence, Orange.State.Squeezed);
+        bottler = new RingStage(ring, new SequenceBarrier(squeezedSequence), bottledSequence, Orange.State.Bottled);
+
+        orangesProvided = 0;
+        orangesProcessed = 0;
+    }
+
+    /**
+     * Entry point to start multiple ring plants and summarize results.
+     *
+     * @param args Command-line arguments.
+     */
+    public static void main(String[] args) {
+        RingPlant[] plants = new RingPlant[NUM_PLANTS];
+        for (int i = 0; i < NUM_PLANTS; i++) {
+            plants[i] = new RingPlant(i);
+            plants[i].startPlant();
+        }
+
+        delay(Plant.PROCESSING_TIME, "Plant malfunction");// giving time to start and stop plants
+
+        for (RingPlant p : plants) {
+            p.stopPlant();
+        }
+        for (RingPlant p : plants) {
+            p.waitToStop();
+        }
+        OrangeTracer.close();
+
+        // Outputs the results
+        PlantSnapshot total = snapshot(plants);
+        long totalBottles = 0;
+        long totalWasted = 0;
+        for (RingPlant p : plants) {
+            totalBottles += p.getBottles();
+            totalWasted += p.getWaste();
+        }
+        System.out.println("Total fetched/processed = " + total.getFetched() + "/" + total.getBottled());
+        System.out.println("Created " + totalBottles + " bottles, wasted " + totalWasted + " oranges");
+    }
+
+    /**
+     * Takes a snapshot of the combined sequences of several ring plants.
+     * Safe to call from any thread, as often as needed, while the plants are running.
+     * The sequences are read from the last stage to the first; see {@link Plant#snapshot(Plant...)}.
+     *
+     * @param plants The plants to include.
+     * @return The summed counters of the plants.
+     */
+    public static PlantSnapshot snapshot(RingPlant... plants) {
+        long bottled = 0;
+        long squeezed = 0;
+        long peeled = 0;
+        long fetched = 0;
+        for (RingPlant p : plants) {
+            bottled += p.bottledSequence.get() + 1;
+            squeezed += p.squeezedSequence.get() + 1;
+            peeled += p.peeledSequence.get() + 1;
+            fetched += p.fetchedSequence.get() + 1;
+        }
+        return new PlantSnapshot(System.nanoTime(), fetched, peeled, squeezed, bottled);
+    }
+
+    @Override
+    protected String getProduct() {
+        return "oranges";
+    }
+
+    /**
+     * Starts the fetcher and the stages following it around the ring.
+     */
+    @Override
+    protected void startStages() {
+        fetcher.startFetcher();
+        peeler.startStage();
+        squeezer.startStage();
+        bottler.startStage();
+    }
+
+    /**
+     * Stops every stage and adds up what the plant produced.
+     */
+    @Override
+    protected void stopStages() {
+        fetcher.stopFetcher();
+        peeler.stopStage();
+        squeezer.stopStage();
+        bottler.stopStage();
+        fetcher.waitToStop();
+        peeler.waitToStop();
+        squeezer.waitToStop();
+        bottler.waitToStop();
+        orangesProvided += fetcher.getOrangesFetched();
+        orangesProcessed += bottler.getOrangesProcessed();
+    }
+
+    /**
+     * Takes a snapshot of this plant's sequences; see {@link #snapshot(RingPlant...)}.
+     *
+     * @return The plant's counters.
+     */
+    public PlantSnapshot snapshot() {
+        return snapshot(this);
+    }
+
+    public long getFetchedOranges() {
+        return fetcher.getOrangesFetched();
+    }
+
+    public long getPeeledOranges() {
+        return peeler.getOrangesProcessed();
+    }
+
+    public long getSqueezedOranges() {
+        return squeezer.getOrangesProcessed();
+    }
+
+    public long getOrangesBottled() {
+        return bottler.getOrangesProcessed();
+    }
+
+    public long getProvidedOranges() {
+        return orangesProvided;
+    }
+
+    public long getProcessedOranges() {
+        return orangesProcessed;
+    }
+
+    public long getBottles() {
+        return orangesProcessed / ORANGES_PER_BOTTLE;
+    }
+
+    public long getWaste() {
+        return orangesProvided - orangesProcessed;
+    }
+}
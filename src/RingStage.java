@@ -0,0 +1,119 @@
+/**
+ * Description: The {@code RingStage} class is one processing stage (peeling, squeezing or bottling)
+ * of a {@code RingPlant}. It follows the oranges in the shared ring with its own sequence,
+ * is gated on the sequence of the stage before it, and processes every orange that is in
+ * the state it is responsible for.
+ * This class implements the {@code Runnable} interface to allow execution in a separate thread.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class RingStage implements Runnable {
+
+    /**
+     * Thread instance to handle the stage in a separate thread.
+     */
+    private final Thread thread;
+    /**
+     * Ring holding the oranges of the plant.
+     */
+    private final OrangeRing ring;
+    /**
+     * Barrier on the sequence of the upstream stage.
+     */
+    private final SequenceBarrier barrier;
+    /**
+     * Sequence of the last orange this stage has finished with.
+     */
+    private final Sequence sequence;
+    /**
+     * State of the oranges this stage processes.
+     */
+    private final Orange.State stage;
+    /**
+     * Flag to control whether the thread should continue working.
+     */
+    private volatile boolean timeToWork;
+
+    /**
+     * Constructs a new RingStage for the given orange state.
+     *
+     * @param ring     The ring holding the oranges of the plant.
+     * @param barrier  Barrier on the sequence of the upstream stage.
+     * @param sequence Sequence published for every orange this stage finishes with.
+     * @param stage    State of the oranges this stage processes.
+     */
+    RingStage(OrangeRing ring, SequenceBarrier barrier, Sequence sequence, Orange.State stage) {
+        this.ring = ring;
+        this.barrier = barrier;
+        this.sequence = sequence;
+        this.stage = stage;
+        thread = new Thread(this, "Ring" + stage);
+    }
+
+    /**
+     * Stops the stage and releases the thread if it is waiting on the upstream stage.
+     */
+    public void stopStage() {
+        timeToWork = false;
+        barrier.alert();
+    }
+
+    /**
+     * Starts the stage by setting the flag to {@code true} and starting the thread.
+     */
+    public void startStage() {
+        timeToWork = true;
+        thread.start();
+    }
+
+    /**
+     * Waits for the thread to stop execution by joining it.
+     * If the thread is interrupted, an error message is printed.
+     */
+    public void waitToStop() {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            System.err.println(thread.getName() + " stop malfunction");
+        }
+    }
+
+    /**
+     * Defines the main execution logic for the stage thread.
+     * Processes every orange the upstream stage has published, publishing each one
+     * as soon as it is done so the downstream stage can start on it.
+     */
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        while (timeToWork) {
+            long available = barrier.waitFor(next);
+            while (next <= available && timeToWork) {
+                processOrange(ring.get(next));
+                sequence.set(next);
+                next++;
+            }
+        }
+    }
+
+    /**
+     * Processes an orange if it is in the state handled by this stage.
+     *
+     * @param o The orange to be processed.
+     */
+    public void processOrange(Orange o) {
+        if (o.getState() == stage) {
+            o.runProcess();
+        }
+    }
+
+    /**
+     * Gets the total number of oranges processed by this stage.
+     *
+     * @return The count of processed oranges.
+     */
+    public long getOrangesProcessed() {
+        return sequence.get() + 1;
+    }
+}
@@ -0,0 +1,92 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Padding placed in front of the sequence value so that it does not share a cache line
+ * with whatever the JVM allocates before it.
+ */
+class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+/**
+ * Holds the actual sequence value between the two padding blocks.
+ */
+class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+/**
+ * Padding placed behind the sequence value so that it does not share a cache line
+ * with whatever the JVM allocates after it.
+ */
+class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * Description: The {@code Sequence} class is a cache-line-padded counter used by the ring plant
+ * and for the live counters of every plant.
+ * Each stage owns exactly one sequence and is the only thread that writes it,
+ * so publishing a new value is a single release store with no locking.
+ * Readers in other stages use acquire loads to see the oranges written before the store.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class Sequence extends SequenceRhsPadding {
+
+    /**
+     * Initial value of every sequence; nothing has been published yet.
+     */
+    public static final long INITIAL_VALUE = -1L;
+
+    /**
+     * Handle used for release/acquire access to {@code value}.
+     */
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Constructs a new Sequence starting at {@link #INITIAL_VALUE}.
+     */
+    public Sequence() {
+        VALUE.setRelease(this, INITIAL_VALUE);
+    }
+
+    /**
+     * Reads the current value of the sequence.
+     *
+     * @return The last published sequence number.
+     */
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * Publishes a new value. Only the owning stage may call this method.
+     *
+     * @param newValue The sequence number to publish.
+     */
+    public void set(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    /**
+     * Advances the sequence by one. Only the owning stage may call this method.
+     *
+     * @return The new value of the sequence.
+     */
+    public long increment() {
+        long next = (long) VALUE.getOpaque(this) + 1;
+        VALUE.setRelease(this, next);
+        return next;
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Description: The {@code SequenceBarrier} class gates a ring plant stage on the sequences of the
+ * stages it depends on. A stage asks the barrier for a sequence number and is held back until
+ * every dependency has published at least that far.
+ * <p>
+ * Waiting starts by spinning, then yields, and finally parks for short periods, since the
+ * stages of a plant spend most of their time doing work rather than handing oranges over.
+ * The barrier can be alerted to release a waiting stage when the plant is stopping.
+ * </p>
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class SequenceBarrier {
+
+    /**
+     * Number of busy spins before the waiting stage starts yielding.
+     */
+    private static final int SPIN_TRIES = 100;
+    /**
+     * Number of yields before the waiting stage starts parking.
+     */
+    private static final int YIELD_TRIES = 100;
+    /**
+     * Time in nanoseconds a waiting stage parks between checks.
+     */
+    private static final long PARK_NANOS = 100_000L;
+
+    /**
+     * Sequences of the stages this barrier waits on.
+     */
+    private final Sequence[] dependencies;
+    /**
+     * Flag raised to release waiting stages when the plant is stopping.
+     */
+    private volatile boolean alerted;
+
+    /**
+     * Constructs a new SequenceBarrier over the given stage sequences.
+     *
+     * @param dependencies The sequences that must be published before a stage can proceed.
+     */
+    public SequenceBarrier(Sequence... dependencies) {
+        this.dependencies = dependencies;
+        alerted = false;
+    }
+
+    /**
+     * Waits until every dependency has published at least the requested sequence.
+     *
+     * @param sequence The sequence number the stage wants to process.
+     * @return The highest sequence published by all dependencies, which is at least
+     * {@code sequence} unless the barrier was alerted, in which case it may be lower.
+     */
+    public long waitFor(long sequence) {
+        int tries = 0;
+        long available;
+        while ((available = minimumSequence()) < sequence && !alerted) {
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            tries++;
+        }
+        return available;
+    }
+
+    /**
+     * Releases every stage waiting on this barrier.
+     */
+    public void alert() {
+        alerted = true;
+    }
+
+    /**
+     * Gets the lowest sequence published by the dependencies.
+     *
+     * @return The minimum sequence across all dependencies.
+     */
+    private long minimumSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Sequence s : dependencies) {
+            minimum = Math.min(minimum, s.get());
+        }
+        return minimum;
+    }
+}
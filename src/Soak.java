@@ -0,0 +1,313 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Description: The {@code Soak} class runs juice plants for hours, or until killed, to catch problems
+ * that never show up in the five second run of {@code Plant.main}, such as counter overflow,
+ * leaks and slowly growing garbage collection cost.
+ * <p>
+ * Every snapshot interval it prints the rolling throughput, the bytes allocated per orange and the
+ * garbage collections of the last interval. The allocation figures come from the thread MXBean and
+ * the collection figures from the garbage collector MXBeans of {@code java.lang.management}.
+ * The soak fails with a report, and exit status 1, when throughput drops below a fraction of the
+ * first measured interval or when allocation per orange goes over budget.
+ * </p>
+ * Usage: {@code java Soak [hours] [snapshotSeconds] [bytesPerOrange] [minThroughputRatio]},
+ * where {@code hours} of 0 runs until the process is killed.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class Soak {
+
+    /**
+     * Number of plant instances.
+     */
+    private static final int NUM_PLANTS = 2;
+    /**
+     * Default length of the soak in hours.
+     */
+    private static final double DEFAULT_HOURS = 4;
+    /**
+     * Default time between snapshots in seconds.
+     */
+    private static final long DEFAULT_SNAPSHOT_SECONDS = 60;
+    /**
+     * Default allocation budget per processed orange in bytes.
+     */
+    private static final long DEFAULT_BYTES_PER_ORANGE = 64 * 1024;
+    /**
+     * Default lowest allowed throughput as a fraction of the baseline interval.
+     */
+    private static final double DEFAULT_MIN_THROUGHPUT_RATIO = 0.8;
+    /**
+     * Number of intervals left unchecked while the JVM warms up, before the baseline is taken.
+     */
+    private static final int WARMUP_SNAPSHOTS = 1;
+
+    /**
+     * Plants under test.
+     */
+    private final Plant[] plants;
+    /**
+     * Length of the soak in milliseconds, {@code Long.MAX_VALUE} to run until killed.
+     */
+    private final long duration;
+    /**
+     * Time between snapshots in milliseconds.
+     */
+    private final long snapshotInterval;
+    /**
+     * Allocation budget per processed orange in bytes.
+     */
+    private final long bytesPerOrange;
+    /**
+     * Lowest allowed throughput as a fraction of the baseline interval.
+     */
+    private final double minThroughputRatio;
+    /**
+     * Thread MXBean, used for per-thread allocation counters when the JVM provides them.
+     */
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Running totals over the whole soak.
+     */
+    private long snapshots;
+    private long totalProcessed;
+    private long totalAllocated;
+    private long totalGcCount;
+    private long totalGcTime;
+    private long worstGcTime;
+    /**
+     * Throughput in oranges per second of the first interval after warm-up.
+     */
+    private double baselineThroughput;
+    /**
+     * Throughput in oranges per second of the most recent interval.
+     */
+    private double lastThroughput;
+
+    /**
+     * Constructs a new Soak.
+     *
+     * @param duration           Length of the soak in milliseconds, {@code Long.MAX_VALUE} to run until killed.
+     * @param snapshotInterval   Time between snapshots in milliseconds.
+     * @param bytesPerOrange     Allocation budget per processed orange in bytes.
+     * @param minThroughputRatio Lowest allowed throughput as a fraction of the baseline interval.
+     */
+    Soak(long duration, long snapshotInterval, long bytesPerOrange, double minThroughputRatio) {
+        this.duration = duration;
+        this.snapshotInterval = snapshotInterval;
+        this.bytesPerOrange = bytesPerOrange;
+        this.minThroughputRatio = minThroughputRatio;
+        plants = new Plant[NUM_PLANTS];
+        for (int i = 0; i < NUM_PLANTS; i++) {
+            plants[i] = new Plant(i, Long.MAX_VALUE); // Stopped by the soak once it is over
+        }
+    }
+
+    /**
+     * Entry point to run a soak and exit with status 1 if it fails.
+     *
+     * @param args Optional hours, snapshot seconds, bytes per orange and minimum throughput ratio.
+     */
+    public static void main(String[] args) {
+        double hours = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_HOURS;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SNAPSHOT_SECONDS;
+        long budget = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_BYTES_PER_ORANGE;
+        double ratio = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_MIN_THROUGHPUT_RATIO;
+        long duration = hours > 0 ? (long) (hours * 60 * 60 * 1000) : Long.MAX_VALUE;
+
+        Soak soak = new Soak(duration, seconds * 1000, budget, ratio);
+        if (!soak.run()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the plants, taking a snapshot every interval until the soak ends or fails.
+     *
+     * @return {@code true} if the soak passed, {@code false} if it failed.
+     */
+    public boolean run() {
+        for (Plant p : plants) {
+            p.startPlant();
+        }
+
+        long start = System.currentTimeMillis();
+        long lastTime = System.nanoTime();
+        long lastProcessed = processed();
+        long lastAllocated = allocated();
+        long lastGcCount = gcCount();
+        long lastGcTime = gcTime();
+        String failure = null;
+        while (failure == null && System.currentTimeMillis() - start < duration) {
+            try {
+                Thread.sleep(snapshotInterval);
+            } catch (InterruptedException e) {
+                System.err.println("Soak interrupted");
+                break;
+            }
+            long now = System.nanoTime();
+            long processed = processed();
+            long allocated = allocated();
+            long count = gcCount();
+            long time = gcTime();
+
+            failure = snapshot(System.currentTimeMillis() - start, now - lastTime, processed - lastProcessed,
+                    allocated < 0 ? -1 : Math.max(0, allocated - lastAllocated), count - lastGcCount, time - lastGcTime);
+
+            lastTime = now;
+            lastProcessed = processed;
+            lastAllocated = allocated;
+            lastGcCount = count;
+            lastGcTime = time;
+        }
+
+        for (Plant p : plants) {
+            p.stopPlant();
+        }
+        for (Plant p : plants) {
+            p.waitToStop();
+        }
+        OrangeTracer.close();
+        report(System.currentTimeMillis() - start, failure);
+        return failure == null;
+    }
+
+    /**
+     * Records and prints one interval, checking it against the throughput and allocation limits.
+     *
+     * @param elapsed   Time since the soak started in milliseconds.
+     * @param nanos     Length of the interval in nanoseconds.
+     * @param processed Oranges bottled during the interval.
+     * @param allocated Bytes allocated during the interval, negative if unknown.
+     * @param gcCount   Garbage collections during the interval.
+     * @param gcTime    Time spent collecting garbage during the interval in milliseconds.
+     * @return A description of the failure, or {@code null} if the interval is within limits.
+     */
+    private String snapshot(long elapsed, long nanos, long processed, long allocated, long gcCount, long gcTime) {
+        snapshots++;
+        totalProcessed += processed;
+        totalAllocated += Math.max(0, allocated);
+        totalGcCount += gcCount;
+        totalGcTime += gcTime;
+        worstGcTime = Math.max(worstGcTime, gcTime);
+        lastThroughput = processed * 1e9 / nanos;
+        long perOrange = processed > 0 ? allocated / processed : allocated;
+
+        System.out.printf("[soak %s] processed=%d (%.1f/s) alloc=%s B/orange gc=%d (%d ms)%n",
+                formatTime(elapsed), processed, lastThroughput,
+                allocated < 0 ? "n/a" : Long.toString(perOrange), gcCount, gcTime);
+
+        if (snapshots > WARMUP_SNAPSHOTS && allocated >= 0 && perOrange > bytesPerOrange) {
+            return "allocation of " + perOrange + " B/orange is over the budget of " + bytesPerOrange + " B/orange";
+        }
+        if (snapshots == WARMUP_SNAPSHOTS + 1) {
+            baselineThroughput = lastThroughput;
+        } else if (snapshots > WARMUP_SNAPSHOTS + 1 && lastThroughput < baselineThroughput * minThroughputRatio) {
+            return String.format("throughput dropped to %.1f/s, below %.0f%% of the %.1f/s baseline",
+                    lastThroughput, minThroughputRatio * 100, baselineThroughput);
+        }
+        return null;
+    }
+
+    /**
+     * Prints the final report of the soak.
+     *
+     * @param elapsed Time the soak ran for in milliseconds.
+     * @param failure Description of the failure, or {@code null} if the soak passed.
+     */
+    private void report(long elapsed, String failure) {
+        System.out.println(failure == null ? "SOAK PASSED" : "SOAK FAILED: " + failure);
+        System.out.println("  ran " + formatTime(elapsed) + " over " + snapshots + " snapshots");
+        System.out.printf("  throughput baseline/last = %.1f/%.1f oranges/s%n", baselineThroughput, lastThroughput);
+        System.out.println("  processed " + totalProcessed + " oranges, allocated " + totalAllocated + " bytes"
+                + (totalProcessed > 0 ? " (" + totalAllocated / totalProcessed + " B/orange)" : ""));
+        System.out.println("  gc " + totalGcCount + " collections, " + totalGcTime + " ms total, worst interval "
+                + worstGcTime + " ms");
+
+        long totalProvided = 0;
+        long totalBottles = 0;
+        long totalWasted = 0;
+        for (Plant p : plants) {
+            totalProvided += p.getProvidedOranges();
+            totalBottles += p.getBottles();
+            totalWasted += p.getWaste();
+        }
+        System.out.println("  fetched " + totalProvided + ", created " + totalBottles + " bottles, wasted "
+                + totalWasted + " oranges");
+    }
+
+    /**
+     * Gets the number of oranges bottled so far across all plants.
+     *
+     * @return The count of bottled oranges.
+     */
+    private long processed() {
+        return Plant.snapshot(plants).getBottled();
+    }
+
+    /**
+     * Gets the bytes allocated so far by all live threads.
+     * Threads that have already ended are no longer counted, so callers must not rely on the
+     * value only ever growing.
+     *
+     * @return The allocated bytes, or {@code -1} if the JVM does not track allocation per thread.
+     */
+    private long allocated() {
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : bean.getThreadAllocatedBytes(bean.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of garbage collections so far across all collectors.
+     *
+     * @return The collection count.
+     */
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    /**
+     * Gets the time spent collecting garbage so far across all collectors.
+     *
+     * @return The collection time in milliseconds.
+     */
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Formats a duration as hours, minutes and seconds.
+     *
+     * @param millis Duration in milliseconds.
+     * @return The duration as {@code hh:mm:ss}.
+     */
+    private static String formatTime(long millis) {
+        long seconds = millis / 1000;
+        return String.format("%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+}
@@ -21,9 +21,9 @@ public class Squeezer implements Runnable {
      */
     private final BlockingMailBox squeezedMailBox;
     /**
-     * Counter to track the number of oranges squeezed.
+     * Sequence number of the last orange squeezed, readable by any thread while the squeezer runs.
      */
-    private int orangesSqueezed;
+    private final Sequence orangesSqueezed = new Sequence();
     /**
      * Flag to control whether the thread should continue working.
      */
@@ -31,13 +31,12 @@ public class Squeezer implements Runnable {
 
     /**
      * Constructs a new Squeezer with specified mailboxes.
-     * Initializes the thread and sets the initial count of squeezed oranges to zero.
+     * Initializes the thread; the count of squeezed oranges starts at zero.
      *
      * @param peeledMailBox   The mailbox containing peeled oranges.
      * @param squeezedMailBox The mailbox where squeezed oranges will be stored.
      */
     Squeezer(BlockingMailBox peeledMailBox, BlockingMailBox squeezedMailBox) {
-        orangesSqueezed = 0;
         this.peeledMailBox = peeledMailBox;
         this.squeezedMailBox = squeezedMailBox;
         thread = new Thread(this, "Squeezer");
@@ -95,9 +94,9 @@ public class Squeezer implements Runnable {
     public void squeezeOrange(Orange o) {
         while (o.getState() == Orange.State.Squeezed) {
             o.runProcess();
+            orangesSqueezed.increment();
             squeezedMailBox.put(o);
         }
-        orangesSqueezed++; // Increment the counter after processing the orange
     }
 
     /**
@@ -105,7 +104,7 @@ public class Squeezer implements Runnable {
      *
      * @return The count of squeezed oranges.
      */
-    public int getOrangesSqueezed() {
-        return orangesSqueezed;
+    public long getOrangesSqueezed() {
+        return orangesSqueezed.get() + 1;
     }
 }
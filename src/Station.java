@@ -0,0 +1,428 @@
+import java.util.Arrays;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: The {@code Station} class is a pool of workers that performs one named step for every
+ * recipe that has a step of that name. Oranges of all those recipes arrive in one shared mailbox;
+ * a worker takes one, runs its current step with the cost from the orange's own recipe, and hands
+ * it on to the station of its next step.
+ * <p>
+ * The station keeps a window of recent service times, relative to each step's cost, and a monitor
+ * thread flags stragglers: oranges whose step has been running longer than the configured percentile.
+ * With hedge workers, the monitor also hands each straggler to an idle hedge worker, which redoes
+ * the step; the first attempt to finish moves the orange on and interrupts the other one.
+ * </p>
+ * This class implements the {@code Runnable} interface; every worker runs it in its own thread.
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class Station implements Runnable {
+
+    /**
+     * Number of recent service times kept, must be a power of two.
+     */
+    private static final int SAMPLES = 256;
+    /**
+     * Service times needed before any orange is flagged as a straggler.
+     */
+    private static final int MIN_SAMPLES = 32;
+    /**
+     * Time in milliseconds between straggler checks.
+     */
+    private static final long CHECK_INTERVAL = 1;
+    /**
+     * Number of checks between recomputing the straggler threshold.
+     */
+    private static final int THRESHOLD_REFRESH = 50;
+    /**
+     * Longest time in milliseconds an idle hedge worker goes without checking whether it was stopped.
+     */
+    private static final long HEDGE_POLL = 100;
+
+    /**
+     * Name of the step performed by the station.
+     */
+    private final String name;
+    /**
+     * Shared mailbox of oranges waiting for the station.
+     */
+    private final BlockingMailBox inbox = new BlockingMailBox();
+    /**
+     * Worker threads of the station.
+     */
+    private final Thread[] workers;
+    /**
+     * Hedge worker threads, empty when hedging is off.
+     */
+    private final Thread[] hedgers;
+    /**
+     * Thread flagging stragglers and handing them to the hedge workers.
+     */
+    private final Thread monitor;
+    /**
+     * Stragglers offered to hedge workers; an offer only succeeds if a hedge worker is idle.
+     */
+    private final SynchronousQueue<Attempt> hedges = new SynchronousQueue<>();
+    /**
+     * Stations the oranges are handed on to.
+     */
+    private final Stations stations;
+    /**
+     * Straggler settings, see {@link Stations}.
+     */
+    private final double percentile;
+    private final double stallRate;
+    private final double stallFactor;
+    /**
+     * Attempt each worker is running, by worker slot.
+     */
+    private final AtomicReferenceArray<Attempt> running;
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    /**
+     * Recent service times in thousandths of the step's cost, written round-robin by the workers.
+     */
+    private final AtomicLongArray serviceTimes = new AtomicLongArray(SAMPLES);
+    private final AtomicLong serviceCursor = new AtomicLong();
+    /**
+     * Counters of oranges processed, stragglers flagged and stragglers finished by a hedge worker,
+     * updated by every worker without contention.
+     */
+    private final LongAdder orangesProcessed = new LongAdder();
+    private final LongAdder stragglers = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    /**
+     * Flag to control whether the hedge workers and monitor should continue working.
+     */
+    private volatile boolean timeToWork;
+
+    /**
+     * Constructs a new Station with the given number of workers.
+     *
+     * @param name        Name of the step performed by the station.
+     * @param workers     Number of worker threads.
+     * @param hedgers     Number of hedge worker threads, {@code 0} to turn hedging off.
+     * @param percentile  Service time percentile, between 0 and 1, beyond which an orange is a straggler.
+     * @param stallRate   Chance that a worker stalls on an orange, to simulate slow workers.
+     * @param stallFactor How many times slower a stalled worker is.
+     * @param stations    Stations the oranges are handed on to.
+     */
+    Station(String name, int workers, int hedgers, double percentile, double stallRate, double stallFactor,
+            Stations stations) {
+        this.name = name;
+        this.stations = stations;
+        this.percentile = percentile;
+        this.stallRate = stallRate;
+        this.stallFactor = stallFactor;
+        this.workers = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = new Thread(this, name + "[" + i + "]");
+        }
+        this.hedgers = new Thread[hedgers];
+        for (int i = 0; i < hedgers; i++) {
+            this.hedgers[i] = new Thread(this::hedge, name + "-hedge[" + i + "]");
+        }
+        running = new AtomicReferenceArray<>(workers);
+        monitor = new Thread(this::monitor, name + "-monitor");
+    }
+
+    /**
+     * Starts every worker of the station.
+     */
+    public void startStation() {
+        timeToWork = true;
+        for (Thread t : workers) {
+            t.start();
+        }
+        for (Thread t : hedgers) {
+            t.start();
+        }
+        monitor.start();
+    }
+
+    /**
+     * Stops the station once the orange already in its mailbox is processed,
+     * by closing the mailbox.
+     */
+    public void stopStation() {
+        inbox.close();
+    }
+
+    /**
+     * Waits for every worker to stop execution by joining it, then stops the hedge workers,
+     * which finish any step they are redoing first, and the monitor.
+     * If a thread is interrupted, an error message is printed.
+     */
+    public void waitToStop() {
+        join(workers);
+        timeToWork = false;
+        join(hedgers);
+        join(monitor);
+    }
+
+    /**
+     * Defines the main execution logic of a worker.
+     * Processes oranges from the mailbox until it is closed and empty.
+     */
+    @Override
+    public void run() {
+        int slot = nextSlot.getAndIncrement();
+        Orange orange;
+        while ((orange = inbox.get()) != null) {
+            int step = orange.getStep();
+            long start = System.nanoTime();
+            double pace = stallRate > 0 && ThreadLocalRandom.current().nextDouble() < stallRate ? stallFactor : 1;
+            Attempt attempt = new Attempt(orange, step, start);
+            running.set(slot, attempt);
+            boolean done = orange.work(step, pace);
+            running.set(slot, null);
+            if (done && attempt.win()) {
+                finish(orange, step, start);
+            }
+            attempt.leave();
+        }
+    }
+
+    /**
+     * Defines the main execution logic of a hedge worker.
+     * Redoes the steps of stragglers handed over by the monitor until the station stops.
+     */
+    private void hedge() {
+        while (timeToWork) {
+            Attempt attempt;
+            try {
+                attempt = hedges.poll(HEDGE_POLL, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue; // A stale cancellation from an earlier attempt.
+            }
+            if (attempt == null || !attempt.join()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            if (attempt.orange.work(attempt.step, 1) && attempt.win()) {
+                hedgesWon.increment();
+                finish(attempt.orange, attempt.step, start);
+            }
+            attempt.leave();
+        }
+    }
+
+    /**
+     * Defines the main execution logic of the monitor.
+     * Flags attempts running beyond the straggler threshold and, when hedging is on, offers them
+     * to idle hedge workers.
+     */
+    private void monitor() {
+        long[] window = new long[SAMPLES];
+        long threshold = Long.MAX_VALUE;
+        int checks = 0;
+        while (timeToWork) {
+            if (checks++ % THRESHOLD_REFRESH == 0) {
+                threshold = threshold(window);
+            }
+            long now = System.nanoTime();
+            for (int i = 0; i < running.length() && threshold != Long.MAX_VALUE; i++) {
+                Attempt a = running.get(i);
+                if (a == null || a.flagged) {
+                    continue;
+                }
+                long limit = a.orange.getRecipe().cost(a.step) * threshold * 1_000L; // thousandths of ms to ns
+                if (now - a.start > limit) {
+                    a.flagged = true;
+                    stragglers.increment();
+                    if (hedgers.length > 0) {
+                        hedges.offer(a); // Not hedged if every hedge worker is busy.
+                    }
+                }
+            }
+            try {
+                Thread.sleep(CHECK_INTERVAL);
+            } catch (InterruptedException e) {
+                System.err.println(name + " monitor malfunction");
+            }
+        }
+    }
+
+    /**
+     * Records a completed step and hands the orange on.
+     *
+     * @param o     The orange.
+     * @param step  The step that was completed.
+     * @param start Time the completing attempt started.
+     */
+    private void finish(Orange o, int step, long start) {
+        long cost = Math.max(1, o.getRecipe().cost(step));
+        long relative = (System.nanoTime() - start) / cost / 1_000L; // ns per ms of cost, in thousandths
+        serviceTimes.set((int) (serviceCursor.getAndIncrement() & (SAMPLES - 1)), relative);
+        o.advance(step, start);
+        orangesProcessed.increment();
+        stations.forward(o);
+    }
+
+    /**
+     * Computes the straggler threshold from the recent service times.
+     *
+     * @param window Scratch array of {@link #SAMPLES} entries.
+     * @return The threshold in thousandths of a step's cost, or {@code Long.MAX_VALUE} if there
+     * are too few service times yet.
+     */
+    private long threshold(long[] window) {
+        int count = (int) Math.min(serviceCursor.get(), SAMPLES);
+        if (count < MIN_SAMPLES) {
+            return Long.MAX_VALUE;
+        }
+        for (int i = 0; i < count; i++) {
+            window[i] = serviceTimes.get(i);
+        }
+        Arrays.sort(window, 0, count);
+        return window[(int) Math.min(count - 1, Math.ceil(count * percentile))];
+    }
+
+    /**
+     * Joins threads, printing an error message if interrupted.
+     *
+     * @param threads The threads to join.
+     */
+    private static void join(Thread... threads) {
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                System.err.println(t.getName() + " stop malfunction");
+            }
+        }
+    }
+
+    /**
+     * Places an orange into the station's mailbox, waiting if it is occupied.
+     *
+     * @param o The orange to be processed.
+     */
+    public void put(Orange o) {
+        inbox.put(o);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the total number of oranges processed by the station.
+     *
+     * @return The count of processed oranges.
+     */
+    public long getOrangesProcessed() {
+        return orangesProcessed.sum();
+    }
+
+    /**
+     * Gets the number of oranges flagged as stragglers.
+     *
+     * @return The count of stragglers.
+     */
+    public long getStragglers() {
+        return stragglers.sum();
+    }
+
+    /**
+     * Gets the number of stragglers a hedge worker finished first.
+     *
+     * @return The count of hedges won.
+     */
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * One step of one orange, attempted by a worker and possibly by a hedge worker.
+     * The first attempt to finish wins and interrupts the other one, but only while the
+     * other one is still inside the attempt, so an interrupt never reaches a later orange.
+     */
+    private static class Attempt {
+
+        /**
+         * The orange, the step being attempted, and the time the first attempt started.
+         */
+        final Orange orange;
+        final int step;
+        final long start;
+        /**
+         * Set by the monitor once the attempt has been flagged as a straggler.
+         */
+        volatile boolean flagged;
+        /**
+         * Threads currently inside the attempt.
+         */
+        private Thread worker;
+        private Thread hedger;
+        /**
+         * Whether one of the attempts has won.
+         */
+        private boolean won;
+
+        /**
+         * Constructs the attempt of the calling worker.
+         *
+         * @param orange The orange.
+         * @param step   The step being attempted.
+         * @param start  Time the attempt started.
+         */
+        Attempt(Orange orange, int step, long start) {
+            this.orange = orange;
+            this.step = step;
+            this.start = start;
+            worker = Thread.currentThread();
+        }
+
+        /**
+         * Lets the calling hedge worker join the attempt.
+         *
+         * @return {@code true} if it joined, {@code false} if the attempt is already won.
+         */
+        synchronized boolean join() {
+            if (won) {
+                return false;
+            }
+            hedger = Thread.currentThread();
+            return true;
+        }
+
+        /**
+         * Claims the win for the calling thread and cancels the other attempt.
+         *
+         * @return {@code true} if the calling thread won, {@code false} if the other attempt already had.
+         */
+        synchronized boolean win() {
+            if (won) {
+                return false;
+            }
+            won = true;
+            Thread other = Thread.currentThread() == worker ? hedger : worker;
+            if (other != null) {
+                other.interrupt();
+            }
+            return true;
+        }
+
+        /**
+         * Takes the calling thread out of the attempt and clears any cancellation aimed at it.
+         */
+        void leave() {
+            synchronized (this) {
+                if (Thread.currentThread() == worker) {
+                    worker = null;
+                } else {
+                    hedger = null;
+                }
+            }
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Description: The {@code Stations} class holds the worker pools shared by every recipe plant in the JVM.
+ * Binding a recipe creates a {@code Station} for each of its steps that does not exist yet; steps
+ * with the same name in different recipes share one station.
+ * <p>
+ * Each bound recipe gets a routing table from step to station, so handing an orange on is two array
+ * reads whatever the recipe. Oranges that reach a final step are handed back to their plant.
+ * Since stations are shared, the combined graph of all bound recipes must stay free of cycles;
+ * stations are stopped in graph order so that every orange in flight is finished first.
+ * </p>
+ * <p>
+ * Stations can also hedge against slow workers: each one then has hedge workers that redo the
+ * steps of stragglers, oranges whose step runs beyond a percentile of recent service times.
+ * </p>
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class Stations {
+
+    /**
+     * Number of workers in each station.
+     */
+    private final int workersPerStation;
+    /**
+     * Number of hedge workers in each station, {@code 0} when hedging is off.
+     */
+    private final int hedgersPerStation;
+    /**
+     * Service time percentile, between 0 and 1, beyond which an orange is a straggler.
+     */
+    private final double stragglerPercentile;
+    /**
+     * Chance that a worker stalls on an orange and how many times slower it then is,
+     * to simulate slow workers.
+     */
+    private final double stallRate;
+    private final double stallFactor;
+    /**
+     * Every station, by step name, in creation order.
+     */
+    private final Map<String, Station> byName = new LinkedHashMap<>();
+    /**
+     * Stations each station hands oranges on to.
+     */
+    private final Map<Station, Set<Station>> downstream = new HashMap<>();
+    /**
+     * Station of each step, by recipe id; {@code null} for the first step, which the fetcher
+     * performs, and for final steps.
+     */
+    private volatile Station[][] routes = new Station[0][];
+    /**
+     * Plants the oranges belong to, by plant id.
+     */
+    private volatile RecipePlant[] plants = new RecipePlant[0];
+    /**
+     * Whether the stations have been started.
+     */
+    private boolean started;
+
+    /**
+     * Constructs an empty set of stations without hedging.
+     *
+     * @param workersPerStation Number of workers in each station.
+     */
+    public Stations(int workersPerStation) {
+        this(workersPerStation, 0, 0.95, 0, 1);
+    }
+
+    /**
+     * Constructs an empty set of stations.
+     *
+     * @param workersPerStation   Number of workers in each station.
+     * @param hedgersPerStation   Number of hedge workers in each station, {@code 0} to turn hedging off.
+     * @param stragglerPercentile Service time percentile, between 0 and 1, beyond which an orange is a straggler.
+     * @param stallRate           Chance that a worker stalls on an orange, {@code 0} for none.
+     * @param stallFactor         How many times slower a stalled worker is.
+     */
+    public Stations(int workersPerStation, int hedgersPerStation, double stragglerPercentile,
+                    double stallRate, double stallFactor) {
+        this.workersPerStation = workersPerStation;
+        this.hedgersPerStation = hedgersPerStation;
+        this.stragglerPercentile = stragglerPercentile;
+        this.stallRate = stallRate;
+        this.stallFactor = stallFactor;
+    }
+
+    /**
+     * Creates the stations of a recipe's steps and compiles its routing table.
+     * Binding the same recipe again does nothing.
+     *
+     * @param recipe The recipe to bind.
+     * @throws IllegalArgumentException If the recipe would make the shared station graph cyclic.
+     * @throws IllegalStateException    If the stations are already running.
+     */
+    public synchronized void bind(Recipe recipe) {
+        if (recipe.getId() < routes.length && routes[recipe.getId()] != null) {
+            return;
+        }
+        if (started) {
+            throw new IllegalStateException("Cannot bind " + recipe + " to running stations");
+        }
+
+        Map<String, Set<String>> edges = edgesByName();
+        for (int s = 1; s < recipe.size(); s++) {
+            if (recipe.isFinal(s)) {
+                continue;
+            }
+            edges.computeIfAbsent(recipe.stepName(s), k -> new LinkedHashSet<>());
+            for (int i = 0; i < recipe.nextCount(s); i++) {
+                int n = recipe.nextStep(s, i);
+                if (!recipe.isFinal(n)) {
+                    edges.get(recipe.stepName(s)).add(recipe.stepName(n));
+                }
+            }
+        }
+        if (topologicalOrder(edges).size() < edges.size()) {
+            throw new IllegalArgumentException(recipe + " makes the shared stations cyclic");
+        }
+
+        Station[] table = new Station[recipe.size()];
+        for (int s = 1; s < recipe.size(); s++) {
+            if (!recipe.isFinal(s)) {
+                table[s] = byName.computeIfAbsent(recipe.stepName(s),
+                        k -> new Station(k, workersPerStation, hedgersPerStation, stragglerPercentile,
+                                stallRate, stallFactor, this));
+            }
+        }
+        for (int s = 1; s < recipe.size(); s++) {
+            if (table[s] == null) {
+                continue;
+            }
+            Set<Station> to = downstream.computeIfAbsent(table[s], k -> new LinkedHashSet<>());
+            for (int i = 0; i < recipe.nextCount(s); i++) {
+                Station n = table[recipe.nextStep(s, i)];
+                if (n != null) {
+                    to.add(n);
+                }
+            }
+        }
+        Station[][] r = Arrays.copyOf(routes, Math.max(routes.length, recipe.getId() + 1));
+        r[recipe.getId()] = table;
+        routes = r;
+    }
+
+    /**
+     * Registers the plant that receives the finished oranges with its id.
+     *
+     * @param plant The plant to register.
+     * @throws IllegalArgumentException If another plant already has the same id.
+     */
+    public synchronized void register(RecipePlant plant) {
+        int id = plant.getId();
+        if (id < plants.length && plants[id] != null) {
+            throw new IllegalArgumentException("Plant " + id + " is already registered");
+        }
+        RecipePlant[] p = Arrays.copyOf(plants, Math.max(plants.length, id + 1));
+        p[id] = plant;
+        plants = p;
+    }
+
+    /**
+     * Hands an orange to the station of its current step, or back to its plant if the step is final.
+     *
+     * @param o The orange to hand on.
+     */
+    public void forward(Orange o) {
+        Station next = routes[o.getRecipe().getId()][o.getStep()];
+        if (next != null) {
+            next.put(o);
+        } else {
+            plants[o.getPlant()].complete(o);
+        }
+    }
+
+    /**
+     * Starts every station.
+     */
+    public synchronized void startStations() {
+        started = true;
+        for (Station s : byName.values()) {
+            s.startStation();
+        }
+    }
+
+    /**
+     * Stops every station, upstream stations first, once the oranges in flight are processed.
+     * Must only be called once the fetchers have stopped.
+     */
+    public synchronized void stopStations() {
+        Map<String, Set<String>> edges = edgesByName();
+        for (String name : topologicalOrder(edges)) {
+            Station s = byName.get(name);
+            s.stopStation();
+            s.waitToStop();
+        }
+    }
+
+    /**
+     * Gets every station, in creation order.
+     *
+     * @return The stations.
+     */
+    public synchronized Collection<Station> getStations() {
+        return new ArrayList<>(byName.values());
+    }
+
+    /**
+     * Copies the station graph, naming the stations by step name.
+     *
+     * @return Names of the stations each station hands oranges on to, by station name.
+     */
+    private Map<String, Set<String>> edgesByName() {
+        Map<String, Set<String>> edges = new HashMap<>();
+        for (Map.Entry<Station, Set<Station>> e : downstream.entrySet()) {
+            Set<String> to = new LinkedHashSet<>();
+            for (Station s : e.getValue()) {
+                to.add(s.getName());
+            }
+            edges.put(e.getKey().getName(), to);
+        }
+        return edges;
+    }
+
+    /**
+     * Orders a graph so that every node comes before the nodes it points to.
+     *
+     * @param edges Nodes each node points to; every node must be a key.
+     * @return The nodes in order, missing the nodes on or behind a cycle.
+     */
+    private static List<String> topologicalOrder(Map<String, Set<String>> edges) {
+        Map<String, Integer> incoming = new HashMap<>();
+        for (String from : edges.keySet()) {
+            incoming.putIfAbsent(from, 0);
+            for (String to : edges.get(from)) {
+                incoming.merge(to, 1, Integer::sum);
+            }
+        }
+        Deque<String> ready = new ArrayDeque<>();
+        for (Map.Entry<String, Integer> e : incoming.entrySet()) {
+            if (e.getValue() == 0) {
+                ready.add(e.getKey());
+            }
+        }
+        List<String> order = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            String node = ready.poll();
+            order.add(node);
+            for (String to : edges.getOrDefault(node, Set.of())) {
+                if (incoming.merge(to, -1, Integer::sum) == 0) {
+                    ready.add(to);
+                }
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,522 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Description: The {@code TraceAnalyzer} class reads a lifecycle log written by {@code OrangeTracer}
+ * and rebuilds where the time went, offline.
+ * <p>
+ * For every step of every recipe it reports the service time (time spent doing the step's work),
+ * the wait time (time between the orange's previous step finishing and this one starting) and the
+ * time spent in the mailbox in front of the step. It then breaks the end-to-end time of completed
+ * oranges down along their critical path, and checks each plant against Little's law by comparing
+ * the sampled number of oranges in the plant with arrival rate times time in the plant.
+ * </p>
+ * Usage: {@code java TraceAnalyzer trace.bin}
+ *
+ * @author mcguzelocak
+ * Date: 10/19/2026
+ */
+public class TraceAnalyzer {
+
+    /**
+     * Size of the buffer used to read the log.
+     */
+    private static final int READ_BUFFER_SIZE = OrangeTracer.RECORD_SIZE * 64 * 1024;
+    /**
+     * Number of instants at which the oranges inside each plant are counted for Little's law.
+     */
+    private static final int OCCUPANCY_SAMPLES = 1000;
+    /**
+     * Marks a timestamp that was never recorded. Timestamps come from {@code System.nanoTime()},
+     * which may be negative, so no ordinary value can serve as the marker.
+     */
+    private static final long UNSET = Long.MIN_VALUE;
+
+    /**
+     * Lifecycle of every traced orange, by orange id.
+     */
+    private final Map<Long, Lifecycle> oranges = new HashMap<>();
+    /**
+     * Number of records read.
+     */
+    private long records;
+    /**
+     * Earliest and latest timestamp in the log.
+     */
+    private long firstTime = Long.MAX_VALUE;
+    private long lastTime = Long.MIN_VALUE;
+
+    /**
+     * Entry point to analyse a trace log.
+     *
+     * @param args The path of the log.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java TraceAnalyzer <trace log>");
+            System.exit(2);
+        }
+        TraceAnalyzer analyzer = new TraceAnalyzer();
+        try {
+            analyzer.load(args[0]);
+        } catch (IOException e) {
+            System.err.println("Cannot read trace log: " + e.getMessage());
+            System.exit(1);
+        }
+        analyzer.report();
+    }
+
+    /**
+     * Reads every record of a trace log.
+     *
+     * @param path The path of the log.
+     * @throws IOException If the log cannot be read or is not a valid trace log.
+     */
+    public void load(String path) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(READ_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (buf.position() < OrangeTracer.HEADER_SIZE && ch.read(buf) >= 0) {
+                // Keep reading until the whole header is in.
+            }
+            buf.flip();
+            if (buf.remaining() < OrangeTracer.HEADER_SIZE || buf.getInt() != OrangeTracer.MAGIC) {
+                throw new IOException(path + " is not a trace log");
+            }
+            short version = buf.getShort();
+            short recordSize = buf.getShort();
+            if (version != OrangeTracer.VERSION || recordSize != OrangeTracer.RECORD_SIZE) {
+                throw new IOException("unsupported trace log version " + version);
+            }
+            while (true) {
+                while (buf.remaining() >= OrangeTracer.RECORD_SIZE) {
+                    addRecord(buf.getLong(), buf.getLong(), buf.getShort(), buf.get() & 0xFF, buf.get() & 0xFF,
+                            buf.get());
+                }
+                buf.compact();
+                if (ch.read(buf) < 0) {
+                    break; // A partial record at the end of the log is ignored.
+                }
+                buf.flip();
+            }
+        }
+    }
+
+    /**
+     * Adds one record to the lifecycle of its orange.
+     *
+     * @param id     Orange id.
+     * @param time   Timestamp in nanoseconds.
+     * @param plant  Plant of the orange.
+     * @param recipe Recipe of the orange.
+     * @param step   Step the event belongs to.
+     * @param event  Kind of event.
+     * @throws IOException If the record is not valid.
+     */
+    private void addRecord(long id, long time, int plant, int recipe, int step, int event) throws IOException {
+        if (event < OrangeTracer.STAGE_START || event > OrangeTracer.DONE) {
+            throw new IOException("corrupt record " + records);
+        }
+        records++;
+        firstTime = Math.min(firstTime, time);
+        lastTime = Math.max(lastTime, time);
+        oranges.computeIfAbsent(id, k -> new Lifecycle(plant, recipe)).add(time, step, event);
+    }
+
+    /**
+     * Prints the per-step, critical path and Little's law reports.
+     */
+    public void report() {
+        Map<Integer, List<Lifecycle>> byRecipe = new TreeMap<>();
+        int complete = 0;
+        for (Lifecycle l : oranges.values()) {
+            byRecipe.computeIfAbsent(l.recipe, k -> new ArrayList<>()).add(l);
+            if (l.done != UNSET) {
+                complete++;
+            }
+        }
+        System.out.printf("Trace: %d records, %d oranges (%d complete) over %.1f ms%n",
+                records, oranges.size(), complete, millis(lastTime - firstTime));
+
+        for (Map.Entry<Integer, List<Lifecycle>> e : byRecipe.entrySet()) {
+            reportSteps(e.getKey(), e.getValue());
+            reportCriticalPath(e.getKey(), e.getValue());
+        }
+        reportLittlesLaw();
+    }
+
+    /**
+     * Prints the service, wait and mailbox times of every step of a recipe.
+     *
+     * @param recipe  Recipe identifier.
+     * @param oranges The traced oranges of the recipe.
+     */
+    private void reportSteps(int recipe, List<Lifecycle> oranges) {
+        System.out.println();
+        System.out.println(recipeName(recipe));
+        System.out.println("  Step       count    service mean/p50/p99 ms     wait mean/p50/p99 ms   mailbox mean ms");
+        for (int s = 0; s < steps(oranges); s++) {
+            long[] service = new long[oranges.size()];
+            long[] waits = new long[oranges.size()];
+            long mailbox = 0;
+            int count = 0;
+            int waited = 0;
+            int queued = 0;
+            for (Lifecycle l : oranges) {
+                if (!l.finished(s)) {
+                    continue;
+                }
+                service[count++] = l.service[s];
+                long before = l.previousEnd(s);
+                if (before != UNSET) {
+                    waits[waited++] = l.firstStart[s] - before;
+                }
+                if (l.dequeue[s] != UNSET && l.enqueue[s] != UNSET) {
+                    mailbox += l.dequeue[s] - l.enqueue[s];
+                    queued++;
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            System.out.printf("  %-10s %5d %s %s %10s%n", stepName(recipe, s), count,
+                    distribution(Arrays.copyOf(service, count)), distribution(Arrays.copyOf(waits, waited)),
+                    queued > 0 ? String.format("%.2f", millis(mailbox) / queued) : "-");
+        }
+    }
+
+    /**
+     * Prints how the end-to-end time of a recipe's completed oranges splits into waiting and
+     * service per step. Steps on a branch only count for the oranges that took the branch.
+     *
+     * @param recipe  Recipe identifier.
+     * @param oranges The traced oranges of the recipe.
+     */
+    private void reportCriticalPath(int recipe, List<Lifecycle> oranges) {
+        int steps = steps(oranges);
+        long[] total = new long[oranges.size()];
+        long[] service = new long[steps];
+        long[] wait = new long[steps];
+        int complete = 0;
+        for (Lifecycle l : oranges) {
+            if (l.done == UNSET || l.firstStart.length == 0 || l.firstStart[0] == UNSET) {
+                continue;
+            }
+            total[complete++] = l.done - l.firstStart[0];
+            for (int s = 0; s < l.firstStart.length; s++) {
+                if (!l.finished(s)) {
+                    continue;
+                }
+                service[s] += l.service[s];
+                long before = l.previousEnd(s);
+                // Gaps inside a step, between repeated runs of it, count as waiting too.
+                wait[s] += (before != UNSET ? l.firstStart[s] - before : 0)
+                        + (l.lastEnd[s] - l.firstStart[s] - l.service[s]);
+            }
+        }
+        if (complete == 0) {
+            return;
+        }
+        total = Arrays.copyOf(total, complete);
+        long sum = 0;
+        for (long t : total) {
+            sum += t;
+        }
+
+        System.out.printf("  Critical path of %d complete oranges, end-to-end mean/p50/p99 ms %s%n",
+                complete, distribution(total));
+        for (int s = 0; s < steps; s++) {
+            if (service[s] == 0 && wait[s] == 0) {
+                continue;
+            }
+            System.out.printf("    %-10s wait %8.2f ms (%4.1f%%)   service %8.2f ms (%4.1f%%)%n",
+                    stepName(recipe, s), millis(wait[s]) / complete, 100.0 * wait[s] / sum,
+                    millis(service[s]) / complete, 100.0 * service[s] / sum);
+        }
+    }
+
+    /**
+     * Checks each plant against Little's law, L = lambda * W, with each side measured on its own.
+     * L is the number of traced oranges inside the plant, averaged over {@link #OCCUPANCY_SAMPLES}
+     * evenly spaced instants of the trace; lambda is the rate at which oranges started their
+     * first step; W is the mean time in the plant of the oranges that were done. A large error
+     * means the plant was not in a steady state, for instance because it was still filling up.
+     */
+    private void reportLittlesLaw() {
+        double window = lastTime - firstTime;
+        if (window <= 0) {
+            return;
+        }
+        Map<Integer, List<Lifecycle>> byPlant = new TreeMap<>();
+        for (Lifecycle l : oranges.values()) {
+            byPlant.computeIfAbsent(l.plant, k -> new ArrayList<>()).add(l);
+        }
+
+        System.out.println();
+        System.out.println("Little's law (traced oranges only)");
+        for (Map.Entry<Integer, List<Lifecycle>> e : byPlant.entrySet()) {
+            List<Lifecycle> plant = e.getValue();
+            long[] born = new long[plant.size()];
+            long[] left = new long[plant.size()];
+            long completed = 0;
+            long timeInside = 0;
+            for (int i = 0; i < born.length; i++) {
+                Lifecycle l = plant.get(i);
+                born[i] = l.firstStart.length > 0 && l.firstStart[0] != UNSET ? l.firstStart[0] : l.firstSeen;
+                // Oranges still inside when the trace ended are counted as inside up to its end.
+                left[i] = l.done != UNSET ? l.done : Long.MAX_VALUE;
+                if (l.done != UNSET) {
+                    completed++;
+                    timeInside += l.done - born[i];
+                }
+            }
+            Arrays.sort(born);
+            Arrays.sort(left);
+
+            long occupancy = 0;
+            for (int i = 0; i < OCCUPANCY_SAMPLES; i++) {
+                long t = firstTime + (long) (window * (i + 0.5) / OCCUPANCY_SAMPLES);
+                occupancy += countUpTo(born, t) - countUpTo(left, t);
+            }
+            double observed = (double) occupancy / OCCUPANCY_SAMPLES;
+            double lambda = born.length / window;
+            double w = completed > 0 ? (double) timeInside / completed : 0;
+            double predicted = lambda * w;
+            System.out.printf("  plant %d: L=%.2f  lambda=%.2f/s  W=%.2f ms  lambda*W=%.2f  error=%.1f%%%n",
+                    e.getKey(), observed, lambda * 1e9, millis((long) w), predicted,
+                    observed > 0 ? 100.0 * (observed - predicted) / observed : 0.0);
+        }
+    }
+
+    /**
+     * Counts the values of a sorted array that are not after a given time.
+     *
+     * @param sorted Times in ascending order.
+     * @param time   The time to count up to, inclusive.
+     * @return The number of values less than or equal to {@code time}.
+     */
+    private static int countUpTo(long[] sorted, long time) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the highest number of steps seen for any of the oranges.
+     *
+     * @param oranges The traced oranges of one recipe.
+     * @return The step count.
+     */
+    private static int steps(List<Lifecycle> oranges) {
+        int steps = 0;
+        for (Lifecycle l : oranges) {
+            steps = Math.max(steps, l.firstStart.length);
+        }
+        return steps;
+    }
+
+    /**
+     * Names a recipe. Only recipes built into this program are known by name.
+     *
+     * @param recipe Recipe identifier.
+     * @return The recipe's name.
+     */
+    private static String recipeName(int recipe) {
+        Recipe r = Recipe.byId(recipe);
+        return r != null ? r.getName() : "Recipe " + recipe;
+    }
+
+    /**
+     * Names a step of a recipe.
+     *
+     * @param recipe Recipe identifier.
+     * @param step   Step index.
+     * @return The step's name.
+     */
+    private static String stepName(int recipe, int step) {
+        Recipe r = Recipe.byId(recipe);
+        return r != null && step < r.size() ? r.stepName(step) : "step " + step;
+    }
+
+    /**
+     * Formats the mean, median and 99th percentile of a set of durations.
+     *
+     * @param values Durations in nanoseconds; sorted in place.
+     * @return The formatted distribution.
+     */
+    private static String distribution(long[] values) {
+        if (values.length == 0) {
+            return String.format("%24s", "-");
+        }
+        Arrays.sort(values);
+        long sum = 0;
+        for (long v : values) {
+            sum += v;
+        }
+        return String.format("%8.2f %7.2f %7.2f", millis(sum) / values.length,
+                millis(values[values.length / 2]), millis(values[(int) Math.min(values.length - 1,
+                        Math.ceil(values.length * 0.99) - 1)]));
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos Duration in nanoseconds.
+     * @return The duration in milliseconds.
+     */
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Timestamps gathered for one orange, per step of its recipe. Unset timestamps are {@link #UNSET}.
+     */
+    private static class Lifecycle {
+
+        /**
+         * Plant and recipe of the orange.
+         */
+        final int plant;
+        final int recipe;
+        /**
+         * Per step: first run start, last run end, total service time,
+         * mailbox enqueue, mailbox dequeue and start of the run in progress.
+         */
+        long[] firstStart = new long[0];
+        long[] lastEnd = new long[0];
+        long[] service = new long[0];
+        long[] enqueue = new long[0];
+        long[] dequeue = new long[0];
+        long[] openStart = new long[0];
+        /**
+         * Earliest timestamp seen for the orange.
+         */
+        long firstSeen = Long.MAX_VALUE;
+        /**
+         * Time the orange reached a final step.
+         */
+        long done = UNSET;
+
+        /**
+         * Constructs an empty lifecycle.
+         *
+         * @param plant  Plant of the orange.
+         * @param recipe Recipe of the orange.
+         */
+        Lifecycle(int plant, int recipe) {
+            this.plant = plant;
+            this.recipe = recipe;
+        }
+
+        /**
+         * Adds one event to the lifecycle.
+         *
+         * @param time  Timestamp in nanoseconds.
+         * @param step  Step the event belongs to.
+         * @param event Kind of event.
+         */
+        void add(long time, int step, int event) {
+            firstSeen = Math.min(firstSeen, time);
+            if (event == OrangeTracer.DONE) {
+                done = time;
+                return;
+            }
+            ensure(step);
+            switch (event) {
+                case OrangeTracer.STAGE_START:
+                    openStart[step] = time;
+                    if (firstStart[step] == UNSET || time < firstStart[step]) {
+                        firstStart[step] = time;
+                    }
+                    break;
+                case OrangeTracer.STAGE_END:
+                    if (openStart[step] != UNSET) {
+                        service[step] += time - openStart[step];
+                        openStart[step] = UNSET;
+                    }
+                    lastEnd[step] = Math.max(lastEnd[step], time);
+                    break;
+                case OrangeTracer.ENQUEUE:
+                    enqueue[step] = time;
+                    break;
+                default:
+                    dequeue[step] = time;
+                    break;
+            }
+        }
+
+        /**
+         * Checks whether the orange was seen starting and finishing a step.
+         *
+         * @param step Step index.
+         * @return {@code true} if the step was both started and finished.
+         */
+        boolean finished(int step) {
+            return step < firstStart.length && firstStart[step] != UNSET && lastEnd[step] != UNSET;
+        }
+
+        /**
+         * Gets the end of the step the orange finished just before starting a step.
+         *
+         * @param step Step index.
+         * @return The end time of the previous step, or {@link #UNSET} if there is none.
+         */
+        long previousEnd(int step) {
+            long before = UNSET;
+            for (int s = 0; s < lastEnd.length; s++) {
+                if (s != step && lastEnd[s] != UNSET && lastEnd[s] <= firstStart[step]) {
+                    before = Math.max(before, lastEnd[s]);
+                }
+            }
+            return before;
+        }
+
+        /**
+         * Grows the per-step arrays to hold a step.
+         *
+         * @param step Step index.
+         */
+        private void ensure(int step) {
+            if (step < firstStart.length) {
+                return;
+            }
+            int size = step + 1;
+            firstStart = grown(firstStart, size);
+            lastEnd = grown(lastEnd, size);
+            service = Arrays.copyOf(service, size);
+            enqueue = grown(enqueue, size);
+            dequeue = grown(dequeue, size);
+            openStart = grown(openStart, size);
+        }
+
+        /**
+         * Copies an array of timestamps into a longer one, leaving the new entries unset.
+         *
+         * @param a    The array.
+         * @param size New length.
+         * @return The longer array.
+         */
+        private static long[] grown(long[] a, int size) {
+            long[] g = Arrays.copyOf(a, size);
+            Arrays.fill(g, a.length, size, UNSET);
+            return g;
+        }
+    }
+}